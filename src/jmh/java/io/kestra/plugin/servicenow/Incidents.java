@@ -0,0 +1,52 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Realistic Table API payloads: 65-field incident records, as returned by {@code /api/now/table/incident}.
+ */
+final class Incidents {
+    private static final Map<String, Object> TEMPLATE = template();
+
+    private Incidents() {
+    }
+
+    static List<Map<String, Object>> records(int rows) {
+        var records = new ArrayList<Map<String, Object>>(rows);
+        for (var i = 0; i < rows; i++) {
+            var record = new LinkedHashMap<>(TEMPLATE);
+            record.put("number", "INC%07d".formatted(i));
+            record.put("sys_id", "%032x".formatted(i));
+            record.put("sys_updated_on", "2024-01-01 00:%02d:%02d".formatted(i / 60 % 60, i % 60));
+            records.add(record);
+        }
+
+        return records;
+    }
+
+    /**
+     * @return a page as sent by ServiceNow, records under {@code result}
+     */
+    static byte[] page(int rows) {
+        try {
+            return AbstractServiceNow.MAPPER.writeValueAsBytes(Map.of("result", records(rows)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> template() {
+        try (InputStream resource = Incidents.class.getClassLoader().getResourceAsStream("incident.json")) {
+            return AbstractServiceNow.MAPPER.readValue(resource, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
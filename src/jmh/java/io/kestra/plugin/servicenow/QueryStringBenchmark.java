@@ -0,0 +1,35 @@
+package io.kestra.plugin.servicenow;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Query strings built for every page request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryStringBenchmark {
+    private static final List<String> FIELDS = List.of("number", "short_description", "priority", "state", "assigned_to", "assignment_group");
+    private static final Get.ReadOptions LEAN = new Get.ReadOptions(true, true, Get.DisplayValue.FALSE, true);
+    private static final List<String> LAST = List.of("2024-01-01 00:00:00", "04ce72c9c0a8016600b5b7f75ac67b5b");
+
+    @Benchmark
+    public String offsetPage() {
+        return Get.queryString("active=true^priority=1", 1000, 25000, FIELDS, List.of(), LEAN);
+    }
+
+    @Benchmark
+    public String keysetPage() {
+        return Get.queryString(
+            Get.keysetQuery("active=true^priority=1", Watermark.KEYSET, LAST),
+            1000,
+            null,
+            FIELDS,
+            Watermark.KEYSET,
+            LEAN
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of a Table API page: binding the whole body to {@link Get.GetResult}, against streaming records one by one
+ * with {@link AbstractServiceNow#readResult}, from plain and gzip encoded bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResponseParsingBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private byte[] page;
+    private byte[] gzipped;
+
+    @Setup
+    public void setup() throws IOException {
+        page = Incidents.page(rows);
+
+        var output = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(page);
+        }
+        gzipped = output.toByteArray();
+    }
+
+    @Benchmark
+    public Get.GetResult readValue() throws IOException {
+        return AbstractServiceNow.MAPPER.readValue(page, Get.GetResult.class);
+    }
+
+    @Benchmark
+    public long readResult(Blackhole blackhole) throws IOException {
+        return AbstractServiceNow.readResult(new ByteArrayInputStream(page), blackhole::consume);
+    }
+
+    @Benchmark
+    public long readResultGzip(Blackhole blackhole) throws IOException {
+        return AbstractServiceNow.readResult(new GZIPInputStream(new ByteArrayInputStream(gzipped), 8192), blackhole::consume);
+    }
+}
@@ -0,0 +1,38 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+/**
+ * ION serialization of the STORE fetch type, without the disk: records are written to a discarding writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StoreBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    private List<Map<String, Object>> records;
+
+    @Setup
+    public void setup() {
+        records = Incidents.records(rows);
+    }
+
+    @Benchmark
+    public Long writeAll() throws IOException {
+        try (var output = new BufferedWriter(Writer.nullWriter(), FileSerde.BUFFER_SIZE)) {
+            return FileSerde.writeAll(output, Flux.fromIterable(records)).block();
+        }
+    }
+}
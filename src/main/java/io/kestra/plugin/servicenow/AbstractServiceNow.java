@@ -1,10 +1,33 @@
 package io.kestra.plugin.servicenow;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -17,66 +40,83 @@ import io.kestra.core.http.client.HttpClientException;
 import io.kestra.core.http.client.HttpClientResponseException;
 import io.kestra.core.http.client.configurations.BasicAuthConfiguration;
 import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.Task;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
 
-import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
-import io.kestra.core.models.annotations.PluginProperty;
 
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class AbstractServiceNow extends Task {
-    private static final ObjectMapper MAPPER = new ObjectMapper()
+public abstract class AbstractServiceNow extends Task implements ServiceNowConnectionInterface {
+    static final ObjectMapper MAPPER = new ObjectMapper()
         .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
         .registerModule(new JavaTimeModule());
 
-    @NotNull
-    @Schema(
-        title = "ServiceNow domain",
-        description = "Subdomain used to build `https://<domain>.service-now.com/`; do not include protocol"
-    )
-    @PluginProperty(group = "main")
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    // far above the fields of any table hierarchy, so that the dictionary is read in one request
+    private static final int DICTIONARY_LIMIT = 10000;
+
     private Property<String> domain;
 
-    @NotNull
-    @Schema(title = "ServiceNow username", description = "Used with 'password' for Basic Auth or with client credentials for the OAuth password grant")
-    @PluginProperty(group = "main", secret = true)
     private Property<String> username;
 
-    @NotNull
-    @Schema(title = "ServiceNow password", description = "Account password used with 'username' for Basic Auth or OAuth password grant")
-    @PluginProperty(group = "main", secret = true)
     private Property<String> password;
 
-    @Schema(title = "ServiceNow OAuth client ID", description = "Required with 'clientSecret' plus 'username' and 'password' to switch requests to OAuth bearer tokens")
-    @PluginProperty(group = "connection")
     private Property<String> clientId;
 
-    @Schema(title = "ServiceNow OAuth client secret", description = "Paired with 'clientId' when using the OAuth password grant")
-    @PluginProperty(group = "connection", secret = true)
     private Property<String> clientSecret;
 
-    @Schema(title = "Additional request headers", description = "Optional key/value headers rendered per execution and sent with every call")
-    @PluginProperty(group = "advanced")
     protected Property<Map<CharSequence, CharSequence>> headers;
 
-    @Schema(title = "HTTP client configuration", description = "Advanced HTTP settings such as timeouts, proxies, and TLS; defaults to Kestra HTTP client values")
-    @PluginProperty(group = "advanced")
     protected HttpConfiguration options;
 
-    @Getter(AccessLevel.NONE)
-    private transient String token;
+    @Builder.Default
+    private Property<Integer> maxConnections = Property.ofValue(10);
+
+    @Builder.Default
+    private Property<Duration> keepAlive = Property.ofValue(Duration.ofSeconds(30));
+
+    @Builder.Default
+    private Property<Boolean> compression = Property.ofValue(false);
+
+    @Builder.Default
+    private Property<Boolean> requestCompression = Property.ofValue(false);
+
+    private Property<Double> rateLimit;
+
+    @Builder.Default
+    private Property<Duration> maxRateLimitWait = Property.ofValue(Duration.ofMinutes(10));
+
+    @Builder.Default
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Builder.Default
+    private Property<Duration> retryDelay = Property.ofValue(Duration.ofMillis(500));
 
     @Getter(AccessLevel.NONE)
     private transient String uri;
 
+    @Getter(AccessLevel.NONE)
+    private transient Retries retryBudget;
+
+    @Getter(AccessLevel.NONE)
+    private transient LongAdder receivedBytes;
+
+    // shared with the child tasks built by connection(), so that they all count against the same rateLimit
+    @Getter(AccessLevel.NONE)
+    private transient AtomicReference<RateLimiter> rateCap;
+
     protected String baseUri(RunContext runContext) throws IllegalVariableEvaluationException {
         if (this.uri != null) {
             return this.uri;
@@ -84,20 +124,86 @@ public abstract class AbstractServiceNow extends Task {
         return "https://" + runContext.render(this.domain).as(String.class).orElseThrow() + ".service-now.com/";
     }
 
+    /**
+     * Copies the connection settings of this task to the builder of another one, so that both, run with the same
+     * {@link RunContext}, lease the same pooled client and share the cached token, the rate limiter and the
+     * {@code rateLimit} cap.
+     */
+    protected <B extends AbstractServiceNowBuilder<?, ?>> B connection(B builder) {
+        connection(this, builder)
+            .uri(this.uri)
+            .rateCap(this.rateCapHolder());
+        return builder;
+    }
+
+    /**
+     * Copies connection settings, such as the ones of a trigger, to the builder of a task.
+     */
+    static <B extends AbstractServiceNowBuilder<?, ?>> B connection(ServiceNowConnectionInterface source, B builder) {
+        builder
+            .domain(source.getDomain())
+            .username(source.getUsername())
+            .password(source.getPassword())
+            .clientId(source.getClientId())
+            .clientSecret(source.getClientSecret())
+            .headers(source.getHeaders())
+            .options(source.getOptions())
+            .maxConnections(source.getMaxConnections())
+            .keepAlive(source.getKeepAlive())
+            .compression(source.getCompression())
+            .requestCompression(source.getRequestCompression())
+            .rateLimit(source.getRateLimit())
+            .maxRateLimitWait(source.getMaxRateLimitWait())
+            .maxRetries(source.getMaxRetries())
+            .retryDelay(source.getRetryDelay());
+        return builder;
+    }
+
     private String token(RunContext runContext) throws IllegalVariableEvaluationException, HttpClientException {
-        if (this.token != null) {
-            return this.token;
-        }
+        var baseUri = baseUri(runContext);
+        var rClientId = runContext.render(this.clientId).as(String.class).orElseThrow();
+        var rClientSecret = runContext.render(this.clientSecret).as(String.class).orElseThrow();
+        var rUsername = runContext.render(this.username).as(String.class).orElseThrow();
+        var rPassword = runContext.render(this.password).as(String.class).orElseThrow();
 
-        URI uri = URI.create(baseUri(runContext) + "oauth_token.do");
+        return TokenCache.get(this.tokenKey(runContext), previous -> {
+            if (previous != null && previous.refreshToken() != null) {
+                try {
+                    return this.fetchToken(runContext, baseUri, Map.of(
+                        "grant_type", "refresh_token",
+                        "client_id", rClientId,
+                        "client_secret", rClientSecret,
+                        "refresh_token", previous.refreshToken()
+                    ));
+                } catch (HttpClientResponseException e) {
+                    runContext.logger().debug("Unable to refresh the access token, requesting a new one", e);
+                }
+            }
 
-        Map<String, Object> requestBody = Map.of(
-            "grant_type", "password",
-            "client_id", runContext.render(this.clientId).as(String.class).orElseThrow(),
-            "client_secret", runContext.render(this.clientSecret).as(String.class).orElseThrow(),
-            "username", runContext.render(this.username).as(String.class).orElseThrow(),
-            "password", runContext.render(this.password).as(String.class).orElseThrow()
+            return this.fetchToken(runContext, baseUri, Map.of(
+                "grant_type", "password",
+                "client_id", rClientId,
+                "client_secret", rClientSecret,
+                "username", rUsername,
+                "password", rPassword
+            ));
+        });
+    }
+
+    private TokenCache.Key tokenKey(RunContext runContext) throws IllegalVariableEvaluationException {
+        return TokenCache.Key.of(
+            baseUri(runContext),
+            runContext.render(this.clientId).as(String.class).orElseThrow(),
+            runContext.render(this.username).as(String.class).orElseThrow(),
+            runContext.render(this.clientSecret).as(String.class).orElseThrow(),
+            runContext.render(this.password).as(String.class).orElseThrow()
         );
+    }
+
+    private TokenCache.Token fetchToken(RunContext runContext, String baseUri, Map<String, Object> requestBody)
+        throws IllegalVariableEvaluationException, HttpClientException {
+
+        URI uri = URI.create(baseUri + "oauth_token.do");
 
         HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
             .uri(uri)
@@ -120,41 +226,94 @@ public abstract class AbstractServiceNow extends Task {
                 });
         }
 
-        try (HttpClient client = new HttpClient(runContext, options)) {
-            HttpResponse<Map<String, String>> exchange = client.request(requestBuilder.build());
+        var start = System.nanoTime();
+        try (var lease = this.client(runContext)) {
+            HttpResponse<Map<String, Object>> exchange = lease.client().request(requestBuilder.build());
+            runContext.metric(Counter.of("token.fetches", 1, "grant_type", requestBody.get("grant_type").toString()));
+            runContext.metric(Timer.of("token.duration", Duration.ofNanos(System.nanoTime() - start)));
 
-            Map<String, String> tokenResponse = exchange.getBody();
+            Map<String, Object> tokenResponse = exchange.getBody();
             if (tokenResponse == null || !tokenResponse.containsKey("access_token")) {
                 throw new IllegalStateException("Invalid token request with response " + tokenResponse);
             }
-            this.token = tokenResponse.get("access_token");
-            return this.token;
-        } catch (IOException e) {
-            throw new RuntimeException("Error fetching access token", e);
+
+            var expiresIn = tokenResponse.get("expires_in");
+            var refreshToken = tokenResponse.get("refresh_token");
+            return TokenCache.Token.of(
+                tokenResponse.get("access_token").toString(),
+                refreshToken != null ? refreshToken.toString() : null,
+                expiresIn != null ? Long.valueOf(expiresIn.toString()) : null
+            );
         }
     }
 
     protected <RES> HttpResponse<RES> request(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Class<RES> responseType)
         throws HttpClientException, IllegalVariableEvaluationException {
 
-        requestBuilder
-            .addHeader("Content-Type", "application/json")
-            .build();
+        return this.request(runContext, requestBuilder, responseType, null);
+    }
+
+    /**
+     * @param replay makes a non-idempotent request, typically a POST, safe to retry: it is called after a transient
+     * failure to find the record that may have been created anyway, which is returned as the response body if found
+     */
+    protected <RES> HttpResponse<RES> request(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Class<RES> responseType, Replay<RES> replay)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        return this.request(runContext, requestBuilder, null, responseType, replay);
+    }
+
+    /**
+     * Sends a request whose body is read from a stream, which cannot be sent twice: {@code body} is called before every
+     * attempt, including the ones sent again after a {@code 429}, to open it from its start.
+     */
+    protected <RES> HttpResponse<RES> request(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Body body, Class<RES> responseType)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        return this.request(runContext, requestBuilder, body, responseType, null);
+    }
+
+    private <RES> HttpResponse<RES> request(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Body body, Class<RES> responseType, Replay<RES> replay)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        var request = this.authenticate(runContext, requestBuilder);
+        var compressed = runContext.render(this.compression).as(Boolean.class).orElse(false);
+        var replayed = new AtomicReference<RES>();
+        Replay<RES> lookup = replay == null ? null : () -> {
+            var found = replay.lookup();
+            found.ifPresent(replayed::set);
+            return found;
+        };
+
+        try {
+            HttpResponse<String> response = this.send(
+                runContext,
+                request,
+                client -> {
+                    var attempt = request;
+                    if (body != null) {
+                        try {
+                            // the builder already carries the authentication headers
+                            attempt = requestBuilder.body(body.open()).build();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Unable to open the request body", e);
+                        }
+                    }
+                    return compressed
+                        ? receive(runContext, client, attempt)
+                        : client.request(attempt, String.class);
+                },
+                lookup
+            );
+
+            if (response == null) {
+                runContext.logger().debug("{} {} was applied by a previous attempt", request.getMethod(), request.getUri().getPath());
+                return HttpResponse.<RES> builder()
+                    .request(request)
+                    .body(replayed.get())
+                    .build();
+            }
 
-        if (this.clientId != null) {
-            requestBuilder.addHeader("Authorization", "Bearer " + this.token(runContext));
-        } else {
-            var optionsBuilder = options != null ? options.toBuilder() : HttpConfiguration.builder();
-            options = optionsBuilder.auth(
-                BasicAuthConfiguration.builder()
-                    .username(this.username)
-                    .password(this.password).build()
-            ).build();
-        }
-
-        var request = requestBuilder.build();
-        try (HttpClient client = new HttpClient(runContext, options)) {
-            HttpResponse<String> response = client.request(request, String.class);
             RES parsedResponse = null;
             if (responseType != Void.class && response.getBody() != null && !response.getBody().isEmpty()) {
                 parsedResponse = MAPPER.readValue(response.getBody(), responseType);
@@ -166,15 +325,488 @@ public abstract class AbstractServiceNow extends Task {
                 .headers(response.getHeaders())
                 .status(response.getStatus())
                 .build();
-        } catch (HttpClientResponseException e) {
-            throw new HttpClientResponseException(
-                "Request failed '" + Objects.requireNonNull(e.getResponse()).getStatus().getCode() +
-                    "' and body '" + e.getResponse().getBody() + "'",
-                e.getResponse()
-            );
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Error parsing response body", e);
+        }
+    }
+
+    /**
+     * Reads the whole response body through {@link GzipTransfer}, as the HTTP client would otherwise decode gzip
+     * content as text.
+     */
+    private static HttpResponse<String> receive(RunContext runContext, HttpClient client, HttpRequest request) throws HttpClientException, IllegalVariableEvaluationException {
+        var received = new AtomicReference<HttpResponse<String>>();
+
+        client.request(request, response -> {
+            String body = null;
+            if (response.getBody() != null) {
+                try (var decoded = GzipTransfer.decode(runContext, response)) {
+                    body = new String(decoded.readAllBytes(), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            received.set(HttpResponse.<String> builder()
+                .request(request)
+                .body(body)
+                .headers(response.getHeaders())
+                .status(response.getStatus())
+                .build());
+        });
+
+        return received.get();
+    }
+
+    /**
+     * Sends the request and parses the {@code result} member of the response body token by token, handing each record
+     * to the consumer as soon as it is read, so that only one record is held in memory at a time.
+     * A single-object {@code result} is handed over as one record.
+     *
+     * @return the response status and headers, with the number of records streamed as body
+     */
+    protected HttpResponse<Long> stream(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Consumer<Map<String, Object>> consumer)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        var request = this.authenticate(runContext, requestBuilder);
+
+        try {
+            return this.send(runContext, request, client -> {
+                var count = new AtomicLong();
+                var received = new AtomicReference<HttpResponse<InputStream>>();
+
+                try {
+                    client.request(request, response -> {
+                        received.set(response);
+                        if (response.getBody() == null) {
+                            return;
+                        }
+
+                        try {
+                            count.set(readResult(GzipTransfer.decode(runContext, response, bytes -> this.receivedBytes().add(bytes)), consumer));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (HttpClientException e) {
+                    // records may already have been handed over: sending the request again would duplicate them
+                    if (received.get() != null && !(e instanceof HttpClientResponseException)) {
+                        throw new UncheckedIOException(new IOException("Response body interrupted", e));
+                    }
+                    throw e;
+                }
+
+                runContext.metric(Counter.of("http.response.records", count.get(), "table", metricTable(request.getUri())));
+
+                var response = received.get();
+                return HttpResponse.<Long> builder()
+                    .request(request)
+                    .body(count.get())
+                    .headers(response != null ? response.getHeaders() : null)
+                    .status(response != null ? response.getStatus() : null)
+                    .build();
+            }, null);
+        } catch (UncheckedIOException e) {
             throw new RuntimeException("Error parsing response body", e);
         }
     }
 
+    /**
+     * Sends the request and copies the response body to a file as it arrives, decoded when gzip encoded, so that only a
+     * buffer is held in memory whatever its size. The file is written from its start on every attempt, so a retried
+     * download never appends to a partial one.
+     *
+     * @return the response status and headers, with the number of bytes written as body
+     */
+    protected HttpResponse<Long> download(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder, Path target)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        var request = this.authenticate(runContext, requestBuilder);
+
+        try {
+            return this.send(runContext, request, client -> {
+                var written = new AtomicLong();
+                var received = new AtomicReference<HttpResponse<InputStream>>();
+
+                client.request(request, response -> {
+                    received.set(response);
+                    if (response.getBody() == null) {
+                        return;
+                    }
+
+                    try (var input = GzipTransfer.decode(runContext, response); var output = Files.newOutputStream(target)) {
+                        written.set(input.transferTo(output));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                var response = received.get();
+                return HttpResponse.<Long> builder()
+                    .request(request)
+                    .body(written.get())
+                    .headers(response != null ? response.getHeaders() : null)
+                    .status(response != null ? response.getStatus() : null)
+                    .build();
+            }, null);
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Error writing response body to " + target, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Exchange<T> {
+        HttpResponse<T> send(HttpClient client) throws HttpClientException, IllegalVariableEvaluationException;
+    }
+
+    /**
+     * Opens a request body, once per attempt.
+     */
+    @FunctionalInterface
+    protected interface Body {
+        HttpRequest.RequestBody open() throws IOException;
+    }
+
+    /**
+     * Looks up whether a non-idempotent request that failed was applied after all, so that it is safe to send it again.
+     */
+    @FunctionalInterface
+    protected interface Replay<RES> {
+        Optional<RES> lookup() throws HttpClientException, IllegalVariableEvaluationException;
+    }
+
+    /**
+     * Sends the request over a pooled client once the rate limiter of this instance and user lets it through.
+     * <p>
+     * A request rejected with {@code 429} is queued again until the instance accepts it, for up to
+     * {@code maxRateLimitWait}. Transient failures, connection errors or {@code 502}/{@code 503}/{@code 504}, are retried
+     * with backoff when the method is idempotent or when a {@code replay} lookup finds the request was not applied.
+     *
+     * @return the response, or null when the replay lookup found the request applied by a previous attempt
+     */
+    private <T> HttpResponse<T> send(RunContext runContext, HttpRequest request, Exchange<T> exchange, Replay<?> replay)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        var limiter = RateLimiter.of(new RateLimiter.Key(baseUri(runContext), runContext.render(this.username).as(String.class).orElseThrow()));
+        var cap = this.rateCap(runContext);
+        var deadline = Instant.now().plus(runContext.render(this.maxRateLimitWait).as(Duration.class).orElse(Duration.ofMinutes(10)));
+        var retryable = Retries.IDEMPOTENT.contains(request.getMethod().toUpperCase()) || replay != null;
+        var rMaxRetries = runContext.render(this.maxRetries).as(Integer.class).orElse(3);
+        var attempt = 0;
+
+        while (true) {
+            try {
+                var waited = cap != null ? cap.acquire().plus(limiter.acquire()) : limiter.acquire();
+                if (!waited.isZero()) {
+                    runContext.metric(Timer.of("http.throttle.wait", waited));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the rate limit", e);
+            }
+
+            HttpClientException failure;
+            HttpHeaders failureHeaders = null;
+            this.retries().sent();
+            var start = System.nanoTime();
+            try (var lease = this.client(runContext)) {
+                var response = exchange.send(lease.client());
+                limiter.succeeded(response != null ? response.getHeaders() : null);
+                return response;
+            } catch (HttpClientResponseException e) {
+                var response = e.getResponse();
+                var status = response != null ? response.getStatus().getCode() : 0;
+
+                if (status == 429) {
+                    var now = Instant.now();
+                    var pause = limiter.throttled(response.getHeaders(), now);
+                    if (now.plus(pause).isBefore(deadline)) {
+                        runContext.logger().debug("Rate limited by ServiceNow, retrying in {} at {} requests/s", pause, String.format("%.2f", limiter.rate()));
+                        continue;
+                    }
+                }
+
+                if (!Retries.RETRYABLE_STATUS.contains(status)) {
+                    throw this.failed(runContext, request, e);
+                }
+                failure = this.failed(runContext, request, e);
+                failureHeaders = response.getHeaders();
+            } catch (HttpClientException e) {
+                // connection refused, reset or timed out
+                failure = e;
+            } finally {
+                runContext.metric(Timer.of(
+                    "http.request.duration",
+                    Duration.ofNanos(System.nanoTime() - start),
+                    "method", request.getMethod(),
+                    "table", metricTable(request.getUri())
+                ));
+            }
+
+            if (!retryable || attempt >= rMaxRetries || !this.retries().tryRetry()) {
+                throw failure;
+            }
+
+            var backoff = Retries.delay(runContext.render(this.retryDelay).as(Duration.class).orElse(Duration.ofMillis(500)), attempt);
+            var retryAfter = RateLimiter.retryAfter(failureHeaders, Instant.now()).orElse(Duration.ZERO);
+            var delay = retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff;
+            attempt++;
+
+            runContext.logger().warn("{} {} failed with '{}', retrying in {} (attempt {} of {})", request.getMethod(), request.getUri().getPath(), failure.getMessage(), delay, attempt, rMaxRetries);
+            runContext.metric(Counter.of("http.retries", 1));
+            runContext.metric(Timer.of("http.retry.delay", delay));
+
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw failure;
+            }
+
+            if (replay != null && replay.lookup().isPresent()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return the table a Table, Aggregate or Import Set API call is about, or the name of the other APIs, to tag metrics
+     */
+    static String metricTable(URI uri) {
+        var path = uri.getPath();
+        var index = path.indexOf("/api/now/");
+        if (index < 0) {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        var segments = path.substring(index + "/api/now/".length()).split("/");
+        // versioned paths such as /api/now/v1/batch
+        var api = segments.length > 1 && segments[0].matches("v\\d+") ? 1 : 0;
+        if (api + 1 < segments.length && Set.of("table", "stats", "import").contains(segments[api])) {
+            return segments[api + 1];
+        }
+
+        return segments[api];
+    }
+
+    private synchronized LongAdder receivedBytes() {
+        if (this.receivedBytes == null) {
+            this.receivedBytes = new LongAdder();
+        }
+        return this.receivedBytes;
+    }
+
+    /**
+     * @return the decoded size of the response bodies read by {@link #stream} so far
+     */
+    protected long streamedBytes() {
+        return this.receivedBytes().sum();
+    }
+
+    /**
+     * @return the field types of a table, from the worker-wide cache or loaded from {@code sys_dictionary}
+     */
+    protected TableSchema tableSchema(RunContext runContext, String table, Duration ttl) throws HttpClientException, IllegalVariableEvaluationException {
+        var baseUri = this.baseUri(runContext);
+        return TableSchema.get(new TableSchema.Key(baseUri, table), ttl, name -> this.loadDictionary(runContext, baseUri, name));
+    }
+
+    /**
+     * Walks up {@code super_class} from {@code sys_db_object}, then reads the dictionary of the whole hierarchy at once.
+     */
+    private Map<String, String> loadDictionary(RunContext runContext, String baseUri, String table) throws HttpClientException, IllegalVariableEvaluationException {
+        var hierarchy = new ArrayList<String>();
+        var current = table;
+        while (current != null && !current.isEmpty() && !hierarchy.contains(current)) {
+            hierarchy.add(current);
+
+            var parent = new AtomicReference<String>();
+            this.stream(
+                runContext,
+                HttpRequest.builder().method("GET").uri(URI.create(baseUri + "api/now/table/sys_db_object?" +
+                    "sysparm_query=" + URLEncoder.encode("name=" + current, StandardCharsets.UTF_8) +
+                    "&sysparm_fields=super_class.name&sysparm_limit=1&sysparm_no_count=true&sysparm_exclude_reference_link=true")),
+                record -> parent.set(record.get("super_class.name") instanceof String name ? name : null)
+            );
+            current = parent.get();
+        }
+
+        var rows = new ArrayList<Map<String, Object>>();
+        this.stream(
+            runContext,
+            HttpRequest.builder().method("GET").uri(URI.create(baseUri + "api/now/table/sys_dictionary?" +
+                "sysparm_query=" + URLEncoder.encode("nameIN" + String.join(",", hierarchy) + "^elementISNOTEMPTY", StandardCharsets.UTF_8) +
+                "&sysparm_fields=name,element,internal_type&sysparm_limit=" + DICTIONARY_LIMIT +
+                "&sysparm_no_count=true&sysparm_exclude_reference_link=true")),
+            rows::add
+        );
+
+        runContext.logger().debug("Loaded {} dictionary entries for '{}' from {}", rows.size(), table, hierarchy);
+
+        return TableSchema.merge(hierarchy, rows);
+    }
+
+    /**
+     * @return the limiter enforcing the {@code rateLimit} of this task alone, or null when it has none
+     */
+    private RateLimiter rateCap(RunContext runContext) throws IllegalVariableEvaluationException {
+        var holder = this.rateCapHolder();
+        synchronized (holder) {
+            if (holder.get() == null) {
+                var rRateLimit = runContext.render(this.rateLimit).as(Double.class).orElse(null);
+                if (rRateLimit == null || rRateLimit <= 0) {
+                    return null;
+                }
+                holder.set(RateLimiter.fixed(rRateLimit));
+            }
+            return holder.get();
+        }
+    }
+
+    private synchronized AtomicReference<RateLimiter> rateCapHolder() {
+        if (this.rateCap == null) {
+            this.rateCap = new AtomicReference<>();
+        }
+        return this.rateCap;
+    }
+
+    private synchronized Retries retries() {
+        if (this.retryBudget == null) {
+            this.retryBudget = new Retries();
+        }
+        return this.retryBudget;
+    }
+
+    static long readResult(InputStream body, Consumer<Map<String, Object>> consumer) throws IOException {
+        long count = 0;
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                var token = parser.nextToken();
+
+                if (!"result".equals(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                if (token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(MAPPER.readValue(parser, RECORD_TYPE));
+                        count++;
+                    }
+                } else if (token == JsonToken.START_OBJECT) {
+                    consumer.accept(MAPPER.readValue(parser, RECORD_TYPE));
+                    count++;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private HttpRequest authenticate(RunContext runContext, HttpRequest.HttpRequestBuilder requestBuilder)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        // attachment uploads carry the content type of the file itself
+        if (requestBuilder.build().getHeaders().firstValue("Content-Type").isEmpty()) {
+            requestBuilder.addHeader("Content-Type", "application/json");
+        }
+
+        if (runContext.render(this.compression).as(Boolean.class).orElse(false)) {
+            requestBuilder.addHeader("Accept-Encoding", "gzip");
+        }
+
+        if (runContext.render(this.requestCompression).as(Boolean.class).orElse(false)
+            && requestBuilder.build().getBody() instanceof HttpRequest.JsonRequestBody json) {
+            try {
+                var content = JacksonMapper.ofJson().writeValueAsBytes(json.getContent());
+                if (content.length >= GzipTransfer.REQUEST_THRESHOLD) {
+                    requestBuilder
+                        .addHeader("Content-Encoding", "gzip")
+                        .body(HttpRequest.ByteArrayRequestBody.builder()
+                            .contentType("application/json")
+                            .content(GzipTransfer.encode(runContext, content))
+                            .build()
+                        );
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to compress the request body", e);
+            }
+        }
+
+        if (this.clientId != null) {
+            requestBuilder.addHeader("Authorization", "Bearer " + this.token(runContext));
+        }
+
+        return requestBuilder.build();
+    }
+
+    /**
+     * Leases the pooled HTTP client of this task run for the rendered configuration.
+     */
+    private HttpClientPool.Lease client(RunContext runContext) throws IllegalVariableEvaluationException {
+        var configuration = this.configuration(runContext);
+
+        String scope;
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(JacksonMapper.ofJson().writeValueAsBytes(configuration));
+            scope = HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to identify the HTTP configuration", e);
+        }
+
+        return HttpClientPool.acquire(
+            new HttpClientPool.Key(
+                runContext,
+                baseUri(runContext),
+                scope,
+                runContext.render(this.maxConnections).as(Integer.class).orElse(10),
+                runContext.render(this.keepAlive).as(Duration.class).orElse(Duration.ofSeconds(30))
+            ),
+            configuration
+        );
+    }
+
+    /**
+     * @return the HTTP configuration of the client, with the Basic Auth credentials when OAuth is not used; built for
+     * each lease so that the rendered credentials never end up in the {@code options} property
+     */
+    private HttpConfiguration configuration(RunContext runContext) throws IllegalVariableEvaluationException {
+        if (this.clientId != null) {
+            return this.options;
+        }
+
+        var optionsBuilder = this.options != null ? this.options.toBuilder() : HttpConfiguration.builder();
+        return optionsBuilder.auth(
+            BasicAuthConfiguration.builder()
+                .username(Property.ofValue(runContext.render(this.username).as(String.class).orElseThrow()))
+                .password(Property.ofValue(runContext.render(this.password).as(String.class).orElseThrow())).build()
+        ).build();
+    }
+
+    private HttpClientResponseException failed(RunContext runContext, HttpRequest request, HttpClientResponseException e)
+        throws IllegalVariableEvaluationException {
+
+        var status = Objects.requireNonNull(e.getResponse()).getStatus().getCode();
+
+        // a revoked or expired token must not stay in the worker-wide cache
+        if (status == 401 && this.clientId != null) {
+            request.getHeaders().firstValue("Authorization")
+                .map(value -> value.substring("Bearer ".length()))
+                .ifPresent(throwConsumer(token -> TokenCache.invalidate(this.tokenKey(runContext), token)));
+        }
+
+        return new HttpClientResponseException(
+            "Request failed '" + status +
+                "' and body '" + e.getResponse().getBody() + "'",
+            e.getResponse()
+        );
+    }
+
 }
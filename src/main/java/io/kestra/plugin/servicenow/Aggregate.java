@@ -0,0 +1,280 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Compute counts and statistics on a ServiceNow table",
+    description = """
+        Calls the Aggregate API (`/api/now/stats/{table}`) so that ServiceNow computes counts, sums, averages, minimums \
+        and maximums, optionally grouped by fields, without returning any row.
+        Each result row holds the `groupBy` field values and a `stats` map, as returned by ServiceNow."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Count open P1 incidents per assignment group.",
+            full = true,
+            code = """
+                id: servicenow_aggregate
+                namespace: company.team
+
+                tasks:
+                  - id: aggregate
+                    type: io.kestra.plugin.servicenow.Aggregate
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    query: "active=true^priority=1"
+                    groupBy:
+                      - assignment_group
+                """
+        ),
+        @Example(
+            title = "Average and maximum reassignment count per category.",
+            full = true,
+            code = """
+                id: servicenow_aggregate_stats
+                namespace: company.team
+
+                tasks:
+                  - id: aggregate
+                    type: io.kestra.plugin.servicenow.Aggregate
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    groupBy:
+                      - category
+                    avgFields:
+                      - reassignment_count
+                    maxFields:
+                      - reassignment_count
+                """
+        )
+    }
+)
+public class Aggregate extends AbstractServiceNow implements RunnableTask<Aggregate.Output> {
+    @NotNull
+    @Schema(
+        title = "ServiceNow table",
+        description = "API name of the table to aggregate (for example `incident`)."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> table;
+
+    @Schema(
+        title = "Encoded query filter",
+        description = "ServiceNow encoded query string appended as `sysparm_query` (for example `active=true^priority=1`)."
+    )
+    private Property<String> query;
+
+    @Schema(
+        title = "Count records",
+        description = "Appended as `sysparm_count`."
+    )
+    @Builder.Default
+    private Property<Boolean> count = Property.ofValue(true);
+
+    @Schema(
+        title = "Group by fields",
+        description = "Fields to group the statistics by, sent as `sysparm_group_by`."
+    )
+    private Property<List<String>> groupBy;
+
+    @Schema(title = "Fields to sum", description = "Sent as `sysparm_sum_fields`.")
+    private Property<List<String>> sumFields;
+
+    @Schema(title = "Fields to average", description = "Sent as `sysparm_avg_fields`.")
+    private Property<List<String>> avgFields;
+
+    @Schema(title = "Fields to get the minimum of", description = "Sent as `sysparm_min_fields`.")
+    private Property<List<String>> minFields;
+
+    @Schema(title = "Fields to get the maximum of", description = "Sent as `sysparm_max_fields`.")
+    private Property<List<String>> maxFields;
+
+    @Schema(
+        title = "Having filter",
+        description = "Filter on aggregates sent as `sysparm_having`, for example `count^assignment_group^GT^10`."
+    )
+    private Property<String> having;
+
+    @Schema(
+        title = "Fetch type",
+        description = """
+            FETCH (default) returns the result rows, FETCH_ONE only the first one, \
+            STORE writes them as ION to internal storage as they are read, and NONE only counts them."""
+    )
+    @Builder.Default
+    private Property<FetchType> fetchType = Property.ofValue(FetchType.FETCH);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            Logger logger = runContext.logger();
+
+            var rTable = runContext.render(this.table).as(String.class).orElseThrow();
+            var uri = URI.create(baseUri(runContext) + "api/now/stats/" + rTable + "?" + this.buildQueryString(runContext));
+            var rFetchType = runContext.render(this.fetchType).as(FetchType.class).orElse(FetchType.FETCH);
+
+            var output = switch (rFetchType) {
+                case STORE -> {
+                    var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+                    long size;
+                    try (var writer = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
+                        // rows are written as they are parsed, a wide group by never being held in memory
+                        Flux<Map<String, Object>> flux = Flux.create(sink -> {
+                            try {
+                                this.stream(runContext, HttpRequest.builder().uri(uri).method("GET"), row -> sink.next(flatten(row)));
+                                sink.complete();
+                            } catch (Exception e) {
+                                sink.error(e);
+                            }
+                        });
+                        size = FileSerde.writeAll(writer, flux).block();
+                    }
+
+                    yield Output.builder()
+                        .size((int) size)
+                        .uri(runContext.storage().putFile(tempFile))
+                        .build();
+                }
+                case FETCH_ONE -> {
+                    var first = new ArrayList<Map<String, Object>>(1);
+                    this.stream(runContext, HttpRequest.builder().uri(uri).method("GET"), row -> {
+                        if (first.isEmpty()) {
+                            first.add(flatten(row));
+                        }
+                    });
+
+                    yield Output.builder()
+                        .results(first)
+                        .size(first.size())
+                        .build();
+                }
+                case FETCH -> {
+                    var results = new ArrayList<Map<String, Object>>();
+                    this.stream(runContext, HttpRequest.builder().uri(uri).method("GET"), row -> results.add(flatten(row)));
+
+                    yield Output.builder()
+                        .results(results)
+                        .size(results.size())
+                        .build();
+                }
+                case NONE -> {
+                    var size = new AtomicInteger();
+                    this.stream(runContext, HttpRequest.builder().uri(uri).method("GET"), row -> size.incrementAndGet());
+
+                    yield Output.builder()
+                        .size(size.get())
+                        .build();
+                }
+            };
+
+            logger.info("Aggregate done with {} rows", output.getSize());
+
+            return output;
+        }
+    }
+
+    private String buildQueryString(RunContext runContext) throws Exception {
+        var parts = new ArrayList<String>();
+
+        var rQuery = runContext.render(this.query).as(String.class);
+        if (rQuery.isPresent()) {
+            parts.add("sysparm_query=" + URLEncoder.encode(rQuery.get(), StandardCharsets.UTF_8));
+        }
+
+        if (runContext.render(this.count).as(Boolean.class).orElse(true)) {
+            parts.add("sysparm_count=true");
+        }
+
+        addFields(parts, "sysparm_group_by", runContext.render(this.groupBy).asList(String.class));
+        addFields(parts, "sysparm_sum_fields", runContext.render(this.sumFields).asList(String.class));
+        addFields(parts, "sysparm_avg_fields", runContext.render(this.avgFields).asList(String.class));
+        addFields(parts, "sysparm_min_fields", runContext.render(this.minFields).asList(String.class));
+        addFields(parts, "sysparm_max_fields", runContext.render(this.maxFields).asList(String.class));
+
+        var rHaving = runContext.render(this.having).as(String.class);
+        if (rHaving.isPresent()) {
+            parts.add("sysparm_having=" + URLEncoder.encode(rHaving.get(), StandardCharsets.UTF_8));
+        }
+
+        return String.join("&", parts);
+    }
+
+    private static void addFields(List<String> parts, String parameter, List<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            parts.add(parameter + "=" + URLEncoder.encode(String.join(",", fields), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Turns ServiceNow {@code groupby_fields} (a list of field/value pairs) into plain keys next to {@code stats}.
+     */
+    private static Map<String, Object> flatten(Map<String, Object> row) {
+        var flattened = new LinkedHashMap<String, Object>();
+        if (row.get("groupby_fields") instanceof List<?> groups) {
+            for (var group : groups) {
+                if (group instanceof Map<?, ?> field) {
+                    flattened.put(String.valueOf(field.get("field")), field.get("value"));
+                }
+            }
+        }
+        flattened.put("stats", row.get("stats"));
+
+        return flattened;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Result rows",
+            description = "One row per group, with the `groupBy` field values and a `stats` map. Null when fetchType is STORE or NONE."
+        )
+        private List<Map<String, Object>> results;
+
+        @Schema(title = "Number of rows")
+        private Integer size;
+
+        @Schema(
+            title = "Storage URI",
+            description = "URI of the ION file in internal storage. Set only when fetchType is STORE."
+        )
+        private URI uri;
+    }
+}
@@ -0,0 +1,248 @@
+package io.kestra.plugin.servicenow;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Download ServiceNow attachments to internal storage",
+    description = """
+        Streams attachment content from the Attachment API (`/api/now/attachment`) to internal storage through a temporary file, \
+        so that files of any size are never held in memory. Download a single attachment by `sysId`, or every attachment \
+        matching a `query` with up to `concurrency` downloads in flight."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Download one attachment.",
+            full = true,
+            code = """
+                id: servicenow_attachment_download
+                namespace: company.team
+
+                tasks:
+                  - id: download
+                    type: io.kestra.plugin.servicenow.AttachmentDownload
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    sysId: "a83820b58f723300e7e16c7827bdeed2"
+                """
+        ),
+        @Example(
+            title = "Download every log bundle attached to an incident.",
+            full = true,
+            code = """
+                id: servicenow_attachments_download
+                namespace: company.team
+
+                tasks:
+                  - id: download
+                    type: io.kestra.plugin.servicenow.AttachmentDownload
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    query: "table_name=incident^table_sys_id=9d385017c611228701d22104cc95c371^file_nameLIKE.zip"
+                    concurrency: 4
+                """
+        )
+    }
+)
+public class AttachmentDownload extends AbstractServiceNow implements RunnableTask<AttachmentDownload.Output> {
+    @Schema(
+        title = "Attachment sys_id",
+        description = "`sys_id` of the `sys_attachment` record to download. Either `sysId` or `query` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> sysId;
+
+    @Schema(
+        title = "Attachment query",
+        description = "Encoded query on `sys_attachment` selecting the attachments to download, for example `table_name=incident^table_sys_id=<sys_id>`."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> query;
+
+    @Schema(
+        title = "Maximum attachments",
+        description = "Caps the number of attachments downloaded with `query`."
+    )
+    private Property<Integer> limit;
+
+    @Schema(
+        title = "Concurrent downloads",
+        description = "Maximum number of attachments downloaded at once with `query`."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Page size",
+        description = "Attachment records listed per request with `query`."
+    )
+    @Builder.Default
+    private Property<Integer> pageSize = Property.ofValue(1000);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            var start = Instant.now();
+            var rSysId = runContext.render(this.sysId).as(String.class);
+            var rQuery = runContext.render(this.query).as(String.class);
+
+            if (rSysId.isPresent() == rQuery.isPresent()) {
+                throw new IllegalArgumentException("Exactly one of `sysId` or `query` must be set");
+            }
+
+            var attachmentUri = baseUri(runContext) + "api/now/attachment";
+            var attachments = rSysId.isPresent()
+                ? this.list(runContext, attachmentUri + "/" + rSysId.get(), null, null)
+                : this.list(runContext, attachmentUri, rQuery.get(), runContext.render(this.limit).as(Integer.class).orElse(null));
+
+            if (rSysId.isPresent() && attachments.isEmpty()) {
+                throw new IllegalArgumentException("Attachment '" + rSysId.get() + "' not found");
+            }
+
+            var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+            var bytes = new AtomicLong();
+            var files = Flux.fromIterable(attachments)
+                .flatMapSequential(
+                    attachment -> Mono.fromCallable(() -> this.download(runContext, attachmentUri, attachment, bytes))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                    rConcurrency
+                )
+                .collectList()
+                .block();
+
+            var duration = Duration.between(start, Instant.now());
+            var perSecond = bytes.get() / Math.max(duration.toNanos() / 1e9, 1e-3);
+            runContext.logger().info(
+                "AttachmentDownload fetched {} attachments, {} bytes in {} ({} bytes/s)",
+                files.size(), bytes.get(), duration, String.format("%.0f", perSecond)
+            );
+            runContext.metric(Counter.of("attachments", files.size(), "direction", "download"));
+            runContext.metric(Counter.of("attachment.bytes", bytes.get(), "direction", "download"));
+
+            return Output.builder()
+                .files(files)
+                .uri(files.size() == 1 ? (URI) files.getFirst().get("uri") : null)
+                .size(files.size())
+                .bytes(bytes.get())
+                .bytesPerSecond(perSecond)
+                .duration(duration)
+                .build();
+        }
+    }
+
+    /**
+     * Reads the attachment metadata first, so that no download is started while a listing response is still open.
+     */
+    private List<Map<String, Object>> list(RunContext runContext, String uri, String rQuery, Integer rLimit) throws Exception {
+        var attachments = new ArrayList<Map<String, Object>>();
+        if (rQuery == null) {
+            this.stream(runContext, HttpRequest.builder().uri(URI.create(uri)).method("GET"), attachments::add);
+            return attachments;
+        }
+
+        var rPageSize = runContext.render(this.pageSize).as(Integer.class).orElse(1000);
+        var offset = 0;
+        while (rLimit == null || attachments.size() < rLimit) {
+            var size = rLimit == null ? rPageSize : Math.min(rPageSize, rLimit - attachments.size());
+            var response = this.stream(
+                runContext,
+                HttpRequest.builder()
+                    .uri(URI.create(uri + "?sysparm_query=" + URLEncoder.encode(rQuery + "^ORDERBYsys_id", StandardCharsets.UTF_8) +
+                        "&sysparm_limit=" + size + "&sysparm_offset=" + offset))
+                    .method("GET"),
+                attachments::add
+            );
+
+            long records = response.getBody();
+            if (records < size) {
+                break;
+            }
+            offset += (int) records;
+        }
+
+        return attachments;
+    }
+
+    private Map<String, Object> download(RunContext runContext, String attachmentUri, Map<String, Object> attachment, AtomicLong bytes) throws Exception {
+        var sysId = String.valueOf(attachment.get("sys_id"));
+        var fileName = attachment.get("file_name") != null ? attachment.get("file_name").toString() : sysId;
+        var extension = fileName.lastIndexOf('.') > 0 ? fileName.substring(fileName.lastIndexOf('.')) : null;
+
+        var tempFile = runContext.workingDir().createTempFile(extension);
+        try {
+            var response = this.download(runContext, HttpRequest.builder().uri(URI.create(attachmentUri + "/" + sysId + "/file")).method("GET"), tempFile);
+            bytes.addAndGet(response.getBody());
+
+            var file = new LinkedHashMap<String, Object>();
+            file.put("sysId", sysId);
+            file.put("fileName", fileName);
+            file.put("contentType", attachment.get("content_type"));
+            file.put("tableName", attachment.get("table_name"));
+            file.put("tableSysId", attachment.get("table_sys_id"));
+            file.put("size", response.getBody());
+            file.put("uri", runContext.storage().putFile(tempFile.toFile()));
+            return file;
+        } finally {
+            // several large attachments must not pile up on the worker disk
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Downloaded files",
+            description = "One entry per attachment: its `sysId`, `fileName`, `contentType`, `tableName`, `tableSysId`, `size` in bytes and internal storage `uri`."
+        )
+        private List<Map<String, Object>> files;
+
+        @Schema(title = "Storage URI", description = "URI of the downloaded file when a single attachment was downloaded.")
+        private URI uri;
+
+        @Schema(title = "Attachments downloaded")
+        private Integer size;
+
+        @Schema(title = "Bytes transferred", description = "Total size of the attachments written to internal storage.")
+        private Long bytes;
+
+        @Schema(title = "Throughput", description = "Bytes transferred per second of wall time.")
+        private Double bytesPerSecond;
+
+        @Schema(title = "Wall time")
+        private Duration duration;
+    }
+}
@@ -0,0 +1,184 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedInputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Upload a file from internal storage as a ServiceNow attachment",
+    description = """
+        Streams a file from internal storage to the Attachment API (`/api/now/attachment/file`) and attaches it to a record. \
+        The file is sent as the raw request body while it is read, so that files of any size are never held in memory. \
+        An upload is not retried on a transient failure, as the record may have been attached anyway."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Attach a report to an incident.",
+            full = true,
+            code = """
+                id: servicenow_attachment_upload
+                namespace: company.team
+
+                inputs:
+                  - id: report
+                    type: FILE
+
+                tasks:
+                  - id: upload
+                    type: io.kestra.plugin.servicenow.AttachmentUpload
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    from: "{{ inputs.report }}"
+                    tableName: incident
+                    tableSysId: "9d385017c611228701d22104cc95c371"
+                    fileName: report.pdf
+                """
+        )
+    }
+)
+public class AttachmentUpload extends AbstractServiceNow implements RunnableTask<AttachmentUpload.Output> {
+    @NotNull
+    @Schema(title = "File to upload", description = "Internal storage URI of the file.")
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @NotNull
+    @Schema(title = "Table name", description = "Table of the record the file is attached to, for example `incident`.")
+    @PluginProperty(group = "main")
+    private Property<String> tableName;
+
+    @NotNull
+    @Schema(title = "Record sys_id", description = "`sys_id` of the record the file is attached to.")
+    @PluginProperty(group = "main")
+    private Property<String> tableSysId;
+
+    @Schema(title = "File name", description = "Name of the attachment; defaults to the last segment of `from`.")
+    private Property<String> fileName;
+
+    @Schema(
+        title = "Content type",
+        description = "MIME type of the attachment; guessed from the file name by default, `application/octet-stream` when unknown."
+    )
+    private Property<String> contentType;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            var start = Instant.now();
+            var rFrom = URI.create(runContext.render(this.from).as(String.class).orElseThrow());
+            var rTableName = runContext.render(this.tableName).as(String.class).orElseThrow();
+            var rTableSysId = runContext.render(this.tableSysId).as(String.class).orElseThrow();
+            var rFileName = runContext.render(this.fileName).as(String.class)
+                .orElseGet(() -> rFrom.getPath().substring(rFrom.getPath().lastIndexOf('/') + 1));
+            var rContentType = runContext.render(this.contentType).as(String.class)
+                .or(() -> Optional.ofNullable(URLConnection.guessContentTypeFromName(rFileName)))
+                .orElse("application/octet-stream");
+
+            var uri = baseUri(runContext) + "api/now/attachment/file" +
+                "?table_name=" + URLEncoder.encode(rTableName, StandardCharsets.UTF_8) +
+                "&table_sys_id=" + URLEncoder.encode(rTableSysId, StandardCharsets.UTF_8) +
+                "&file_name=" + URLEncoder.encode(rFileName, StandardCharsets.UTF_8);
+
+            Map<String, Object> result;
+            long bytes;
+            var input = new AtomicReference<GzipTransfer.CountingInputStream>();
+            try {
+                var response = this.request(
+                    runContext,
+                    HttpRequest.builder()
+                        .uri(URI.create(uri))
+                        .method("POST")
+                        .addHeader("Content-Type", rContentType),
+                    () -> {
+                        // a request sent again after a 429 uploads the file from its start
+                        if (input.get() != null) {
+                            input.get().close();
+                        }
+                        input.set(new GzipTransfer.CountingInputStream(new BufferedInputStream(runContext.storage().getFile(rFrom))));
+                        return HttpRequest.InputStreamRequestBody.builder()
+                            .contentType(rContentType)
+                            .content(input.get())
+                            .build();
+                    },
+                    AttachmentResult.class
+                );
+                result = response.getBody() != null ? response.getBody().getResult() : null;
+                bytes = input.get().count();
+            } finally {
+                if (input.get() != null) {
+                    input.get().close();
+                }
+            }
+
+            var duration = Duration.between(start, Instant.now());
+            var perSecond = bytes / Math.max(duration.toNanos() / 1e9, 1e-3);
+            runContext.logger().info(
+                "AttachmentUpload attached '{}' ({} bytes) to {}/{} in {} ({} bytes/s)",
+                rFileName, bytes, rTableName, rTableSysId, duration, String.format("%.0f", perSecond)
+            );
+            runContext.metric(Counter.of("attachments", 1, "direction", "upload"));
+            runContext.metric(Counter.of("attachment.bytes", bytes, "direction", "upload"));
+
+            return Output.builder()
+                .result(result)
+                .sysId(result != null && result.get("sys_id") != null ? result.get("sys_id").toString() : null)
+                .bytes(bytes)
+                .bytesPerSecond(perSecond)
+                .duration(duration)
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "The attachment record returned by ServiceNow")
+        private Map<String, Object> result;
+
+        @Schema(title = "Attachment sys_id")
+        private String sysId;
+
+        @Schema(title = "Bytes transferred")
+        private Long bytes;
+
+        @Schema(title = "Throughput", description = "Bytes transferred per second of wall time.")
+        private Double bytesPerSecond;
+
+        @Schema(title = "Wall time")
+        private Duration duration;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class AttachmentResult {
+        Map<String, Object> result;
+    }
+}
@@ -0,0 +1,387 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import lombok.extern.jackson.Jacksonized;
+
+import static io.kestra.core.utils.Rethrow.throwConsumer;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Run many ServiceNow table operations through the Batch API",
+    description = """
+        Groups operations into `/api/now/v1/batch` envelopes of `batchSize` sub-requests and sends up to `concurrency` envelopes at once, \
+        so thousands of inserts, updates or deletes cost a few hundred HTTP calls.
+        Each sub-response is mapped back to its operation and written as one row of an ION file in internal storage."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Update and delete records in a single batch call.",
+            full = true,
+            code = """
+                id: servicenow_batch
+                namespace: company.team
+
+                tasks:
+                  - id: batch
+                    type: io.kestra.plugin.servicenow.Batch
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    operations:
+                      - method: PATCH
+                        table: incident
+                        sysId: a7ec77cbdefac300d322d182689619dc
+                        data:
+                          assignment_group: 287ebd7da9fe198100f92cc8d1d2154e
+                      - method: DELETE
+                        table: incident
+                        sysId: f8266e2adb16fb00fa638a3a489619d2
+                """
+        ),
+        @Example(
+            title = "Apply operations read from an ION file produced by a previous task.",
+            full = true,
+            code = """
+                id: servicenow_batch_file
+                namespace: company.team
+
+                tasks:
+                  - id: batch
+                    type: io.kestra.plugin.servicenow.Batch
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    from: "{{ outputs.transform.uri }}"
+                    batchSize: 100
+                    concurrency: 8
+                """
+        )
+    }
+)
+public class Batch extends AbstractServiceNow implements RunnableTask<Batch.Output> {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson();
+
+    @Schema(
+        title = "Operations to run",
+        description = "Inline list of operations. Either `operations` or `from` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<List<Operation>> operations;
+
+    @Schema(
+        title = "Operations file",
+        description = "Internal storage URI of an ION file with one operation per row, using the same fields as `operations`."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @NotNull
+    @Schema(
+        title = "Sub-requests per batch call",
+        description = "Number of operations packed into each `/api/now/v1/batch` envelope."
+    )
+    @Builder.Default
+    private Property<Integer> batchSize = Property.ofValue(100);
+
+    @NotNull
+    @Schema(
+        title = "Concurrent batch calls",
+        description = "Maximum number of envelopes in flight at once."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            Logger logger = runContext.logger();
+            var start = Instant.now();
+
+            var rBatchSize = runContext.render(this.batchSize).as(Integer.class).orElse(100);
+            var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+            if (rBatchSize < 1 || rConcurrency < 1) {
+                throw new IllegalArgumentException("`batchSize` and `concurrency` must be at least 1");
+            }
+            var baseUri = baseUri(runContext);
+
+            var succeeded = new AtomicLong();
+            var failed = new AtomicLong();
+            var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+            try (var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
+                Flux<Map<String, Object>> flux = this.read(runContext)
+                    .index()
+                    .buffer(rBatchSize)
+                    .flatMapSequential(
+                        envelope -> Mono.fromCallable(() -> send(this, runContext, baseUri, envelope))
+                            .subscribeOn(Schedulers.boundedElastic()),
+                        rConcurrency
+                    )
+                    .flatMapIterable(rows -> rows)
+                    .doOnNext(row -> {
+                        if (Boolean.TRUE.equals(row.get("success"))) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    });
+
+                FileSerde.writeAll(output, flux).block();
+            }
+
+            var duration = Duration.between(start, Instant.now());
+            logger.info("Batch ran {} operations ({} failed) in {}", succeeded.get() + failed.get(), failed.get(), duration);
+
+            return Output.builder()
+                .uri(runContext.storage().putFile(tempFile))
+                .total(succeeded.get() + failed.get())
+                .succeeded(succeeded.get())
+                .failed(failed.get())
+                .duration(duration)
+                .build();
+        }
+    }
+
+    private Flux<Operation> read(RunContext runContext) throws Exception {
+        var rFrom = runContext.render(this.from).as(String.class);
+        if (rFrom.isPresent()) {
+            var reader = new BufferedReader(
+                new InputStreamReader(runContext.storage().getFile(URI.create(rFrom.get())), StandardCharsets.UTF_8),
+                FileSerde.BUFFER_SIZE
+            );
+            return FileSerde.readAll(reader)
+                .map(row -> MAPPER.convertValue(row, Operation.class))
+                .doFinally(throwConsumer(ignored -> reader.close()));
+        }
+
+        var rOperations = runContext.render(this.operations).asList(Operation.class);
+        if (rOperations == null || rOperations.isEmpty()) {
+            throw new IllegalArgumentException("Either `operations` or `from` must be set");
+        }
+        return Flux.fromIterable(rOperations);
+    }
+
+    /**
+     * Sends one batch envelope and maps every sub-response back to its operation, in input order.
+     *
+     * @param operations operations paired with their position in the input, which is used as sub-request id
+     */
+    static List<Map<String, Object>> send(AbstractServiceNow task, RunContext runContext, String baseUri, List<Tuple2<Long, Operation>> operations)
+        throws Exception {
+
+        var restRequests = new ArrayList<Map<String, Object>>(operations.size());
+        for (var entry : operations) {
+            restRequests.add(entry.getT2().toRestRequest(String.valueOf(entry.getT1())));
+        }
+
+        var requestBuilder = HttpRequest.builder()
+            .uri(URI.create(baseUri + "api/now/v1/batch"))
+            .method("POST")
+            .body(
+                HttpRequest.JsonRequestBody.builder()
+                    .content(Map.of(
+                        "batch_request_id", IdUtils.create(),
+                        "rest_requests", restRequests
+                    ))
+                    .build()
+            );
+
+        var responses = new HashMap<String, ServicedRequest>();
+        String envelopeError = null;
+        try {
+            var response = task.request(runContext, requestBuilder, BatchResult.class);
+            if (response.getBody() != null && response.getBody().getServicedRequests() != null) {
+                response.getBody().getServicedRequests().forEach(serviced -> responses.put(serviced.getId(), serviced));
+            }
+        } catch (HttpClientResponseException e) {
+            // a rejected envelope fails its operations, not the whole run
+            runContext.logger().warn("Batch call failed for {} operations: {}", operations.size(), e.getMessage());
+            envelopeError = e.getMessage();
+        }
+
+        var rows = new ArrayList<Map<String, Object>>(operations.size());
+        for (var entry : operations) {
+            var operation = entry.getT2();
+            var serviced = responses.get(String.valueOf(entry.getT1()));
+
+            var row = new LinkedHashMap<String, Object>();
+            row.put("index", entry.getT1());
+            row.put("id", operation.getId());
+            row.put("method", operation.getMethod());
+            row.put("table", operation.getTable());
+            row.put("sysId", operation.getSysId());
+
+            if (serviced == null) {
+                row.put("success", false);
+                row.put("error", envelopeError != null ? envelopeError : "Not serviced by the batch API");
+            } else {
+                row.put("statusCode", serviced.getStatusCode());
+                row.put("statusText", serviced.getStatusText());
+                try {
+                    var body = serviced.decodedBody();
+                    row.put("success", serviced.getStatusCode() >= 200 && serviced.getStatusCode() < 300);
+                    row.put("result", body.get("result"));
+                    row.put("error", body.get("error"));
+                } catch (IOException | IllegalArgumentException e) {
+                    // an HTML error page or a truncated body fails this operation, not the whole run
+                    row.put("success", false);
+                    row.put("error", "Unreadable sub-response body: " + e.getMessage());
+                }
+            }
+
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    @Builder
+    @Value
+    @Jacksonized
+    public static class Operation {
+        @Schema(title = "Caller-defined identifier", description = "Copied as is to the output row, to correlate results with inputs.")
+        String id;
+
+        @NotNull
+        @Schema(title = "HTTP method", description = "One of GET, POST, PUT, PATCH or DELETE.")
+        String method;
+
+        @NotNull
+        @Schema(title = "ServiceNow table", description = "API name of the table targeted by the operation.")
+        String table;
+
+        @Schema(title = "Record sys_id", description = "Required for GET on a single record, PUT, PATCH and DELETE.")
+        String sysId;
+
+        @Schema(title = "Record payload", description = "Sent as the JSON body of POST, PUT and PATCH operations.")
+        Map<String, Object> data;
+
+        Map<String, Object> toRestRequest(String requestId) throws Exception {
+            var url = "/api/now/table/" + pathSegment(table) + (sysId != null ? "/" + pathSegment(sysId) : "");
+
+            var restRequest = new LinkedHashMap<String, Object>();
+            restRequest.put("id", requestId);
+            restRequest.put("method", method.toUpperCase());
+            restRequest.put("url", url);
+            restRequest.put("headers", List.of(
+                Map.of("name", "Content-Type", "value", "application/json"),
+                Map.of("name", "Accept", "value", "application/json")
+            ));
+            if (data != null) {
+                restRequest.put("body", Base64.getEncoder().encodeToString(MAPPER.writeValueAsBytes(data)));
+            }
+
+            return restRequest;
+        }
+
+        static String pathSegment(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class BatchResult {
+        @JsonProperty("batch_request_id")
+        String batchRequestId;
+
+        @JsonProperty("serviced_requests")
+        List<ServicedRequest> servicedRequests;
+
+        @JsonProperty("unserviced_requests")
+        List<Object> unservicedRequests;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ServicedRequest {
+        String id;
+
+        String body;
+
+        @JsonProperty("status_code")
+        int statusCode;
+
+        @JsonProperty("status_text")
+        String statusText;
+
+        Map<String, Object> decodedBody() throws IOException {
+            if (body == null || body.isEmpty()) {
+                return Map.of();
+            }
+
+            var decoded = Base64.getDecoder().decode(body);
+            return decoded.length == 0 ? Map.of() : MAPPER.readValue(decoded, new TypeReference<Map<String, Object>>() {});
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Storage URI",
+            description = "ION file with one row per operation: `index`, `id`, `method`, `table`, `sysId`, `success`, `statusCode`, `statusText`, `result` and `error`."
+        )
+        private URI uri;
+
+        @Schema(title = "Operations processed")
+        private Long total;
+
+        @Schema(title = "Operations that returned a 2xx status")
+        private Long succeeded;
+
+        @Schema(title = "Operations that failed or were not serviced")
+        private Long failed;
+
+        @Schema(title = "Wall time")
+        private Duration duration;
+    }
+}
@@ -1,12 +1,33 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import io.micronaut.http.HttpStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,14 +38,19 @@ import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.annotations.PluginProperty;
 
+import static io.kestra.core.utils.Rethrow.throwConsumer;
+
 @SuperBuilder
 @ToString
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
 @Schema(
-    title = "Delete a ServiceNow record by sys_id",
-    description = "Calls the table REST API with DELETE using Basic Auth or the OAuth password grant and flags success when ServiceNow returns HTTP 204."
+    title = "Delete ServiceNow records by sys_id, query or file",
+    description = """
+        Calls the table REST API with DELETE using Basic Auth or the OAuth password grant and flags success when ServiceNow returns HTTP 204.
+        With a `query` or a `from` file of `sys_id`s instead of a `sysId`, every record is deleted with up to `concurrency` requests in flight, \
+        or through the Batch API with `useBatch`, and the outcome of each one is written to the output `uri`."""
 )
 @Plugin(
     examples = {
@@ -44,6 +70,26 @@ import io.kestra.core.models.annotations.PluginProperty;
                     table: incident
                     sysId: "a7ec77cbdefac300d322d182689619dc"
                 """
+        ),
+        @Example(
+            title = "Purge import set rows older than 30 days, failing if more than 200,000 match.",
+            full = true,
+            code = """
+                id: servicenow_purge
+                namespace: company.team
+
+                tasks:
+                  - id: purge
+                    type: io.kestra.plugin.servicenow.Delete
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: u_incident_import
+                    query: "sys_created_on<javascript:gs.daysAgoStart(30)"
+                    maxRecords: 200000
+                    useBatch: true
+                    concurrency: 4
+                """
         )
     }
 )
@@ -54,31 +100,333 @@ public class Delete extends AbstractServiceNow implements RunnableTask<Delete.Ou
     @PluginProperty(group = "main")
     private Property<String> table;
 
-    @NotNull
-    @Schema(title = "Record sys_id", description = "Unique identifier of the record to delete.")
+    @Schema(title = "Record sys_id", description = "Unique identifier of the record to delete. Exactly one of `sysId`, `query` or `from` must be set.")
     @PluginProperty(group = "main")
     private Property<String> sysId;
 
+    @Schema(
+        title = "Encoded query",
+        description = "ServiceNow encoded query selecting the records to delete. `^NQ` and `ORDERBY` clauses are not supported."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> query;
+
+    @Schema(
+        title = "sys_id file",
+        description = "Internal storage URI of an ION file with one record to delete per row: either a `sys_id` string, or a map with a `sys_id` or `sysId` field such as the rows stored by `Get`."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @Schema(
+        title = "Concurrent deletions",
+        description = "Maximum number of DELETE requests, or Batch API envelopes with `useBatch`, in flight at once."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Use the Batch API",
+        description = "Sends the deletions in `/api/now/v1/batch` envelopes of `batchSize` records instead of one request each."
+    )
+    @Builder.Default
+    private Property<Boolean> useBatch = Property.ofValue(false);
+
+    @Schema(
+        title = "Deletions per batch call",
+        description = "Number of records packed into each Batch API envelope with `useBatch`."
+    )
+    @Builder.Default
+    private Property<Integer> batchSize = Property.ofValue(100);
+
+    @Schema(
+        title = "Page size",
+        description = "Matching `sys_id`s read per request with `query`."
+    )
+    @Builder.Default
+    private Property<Integer> pageSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Safety cap",
+        description = """
+            Maximum number of records a run may delete. The records matching `query`, or the rows of `from`, are counted first \
+            and the run fails without deleting anything when there are more; records matching the query after the count are \
+            not deleted beyond the cap either."""
+    )
+    private Property<Long> maxRecords;
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        String table = runContext.render(this.table).as(String.class).orElseThrow();
-        String sysId = runContext.render(this.sysId).as(String.class).orElseThrow();
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            String table = runContext.render(this.table).as(String.class).orElseThrow();
+            var rSysId = runContext.render(this.sysId).as(String.class);
+            var rQuery = runContext.render(this.query).as(String.class);
+            var rFrom = runContext.render(this.from).as(String.class);
+
+            if ((rSysId.isPresent() ? 1 : 0) + (rQuery.isPresent() ? 1 : 0) + (rFrom.isPresent() ? 1 : 0) != 1) {
+                throw new IllegalArgumentException("Exactly one of `sysId`, `query` or `from` must be set");
+            }
+
+            if (rSysId.isEmpty()) {
+                return this.bulk(runContext, table, rQuery.orElse(null), rFrom.map(URI::create).orElse(null));
+            }
+
+            HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
+                .uri(URI.create(baseUri(runContext) + "api/now/table/" + table + "/" + Batch.Operation.pathSegment(rSysId.get())))
+                .method("DELETE");
+
+            HttpResponse<Void> response = this.request(runContext, requestBuilder, Void.class);
+
+            return Output.builder()
+                .deleted(HttpStatus.NO_CONTENT.getCode() == response.getStatus().getCode())
+                .build();
+        }
+    }
 
-        HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
-            .uri(URI.create(baseUri(runContext) + "api/now/table/" + table + "/" + sysId))
-            .method("DELETE");
+    private Output bulk(RunContext runContext, String table, String rQuery, URI rFrom) throws Exception {
+        if (rQuery != null && (rQuery.contains("^NQ") || rQuery.contains("ORDERBY"))) {
+            throw new IllegalArgumentException("`query` does not support `^NQ` or `ORDERBY` clauses");
+        }
 
-        HttpResponse<Void> response = this.request(runContext, requestBuilder, Void.class);
+        var start = Instant.now();
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+        var rUseBatch = runContext.render(this.useBatch).as(Boolean.class).orElse(false);
+        var rBatchSize = runContext.render(this.batchSize).as(Integer.class).orElse(100);
+        var rPageSize = runContext.render(this.pageSize).as(Integer.class).orElse(1000);
+        var rMaxRecords = runContext.render(this.maxRecords).as(Long.class).orElse(null);
+        var baseUri = baseUri(runContext);
+        var tableUri = baseUri + "api/now/table/" + table;
+
+        if (rMaxRecords != null) {
+            var count = rQuery != null ? this.count(runContext, tableUri, rQuery) : count(runContext, rFrom);
+            if (count > rMaxRecords) {
+                throw new IllegalStateException(
+                    (rQuery != null ? "`query` matches " : "`from` holds ") + count + " records, more than `maxRecords` " + rMaxRecords + ": nothing was deleted"
+                );
+            }
+        }
+
+        var deleted = new AtomicLong();
+        var failed = new AtomicLong();
+        var notFound = new AtomicLong();
+        var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
+            var ids = (rQuery != null ? this.matching(runContext, tableUri, rQuery, rPageSize) : read(runContext, rFrom))
+                .take(rMaxRecords != null ? rMaxRecords : Long.MAX_VALUE)
+                .index();
+
+            Flux<Map<String, Object>> outcomes = rUseBatch
+                ? ids.buffer(rBatchSize)
+                    .flatMapSequential(
+                        envelope -> Mono.fromCallable(() -> this.deleteBatch(runContext, baseUri, table, envelope))
+                            .subscribeOn(Schedulers.boundedElastic()),
+                        rConcurrency
+                    )
+                    .flatMapIterable(rows -> rows)
+                : ids.flatMapSequential(
+                    id -> Mono.fromCallable(() -> this.deleteOne(runContext, tableUri, id.getT1(), id.getT2()))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                    rConcurrency
+                );
+
+            FileSerde.writeAll(output, outcomes.doOnNext(row -> {
+                if (Boolean.TRUE.equals(row.get("deleted"))) {
+                    deleted.incrementAndGet();
+                } else if (Boolean.TRUE.equals(row.get("notFound"))) {
+                    notFound.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                }
+            })).block();
+        }
+
+        var duration = Duration.between(start, Instant.now());
+        var perSecond = deleted.get() / Math.max(duration.toNanos() / 1e9, 1e-3);
+        runContext.logger().info(
+            "Delete removed {} records of '{}' ({} not found, {} failed) in {}, {} deletions/s",
+            deleted.get(), table, notFound.get(), failed.get(), duration, String.format("%.1f", perSecond)
+        );
+        runContext.metric(Counter.of("records.deleted", deleted.get(), "table", table));
+        runContext.metric(Counter.of("records.not_found", notFound.get(), "table", table));
+        runContext.metric(Counter.of("records.failed", failed.get(), "table", table));
 
         return Output.builder()
-            .deleted(HttpStatus.NO_CONTENT.getCode() == response.getStatus().getCode())
+            .deleted(failed.get() == 0)
+            .uri(runContext.storage().putFile(tempFile))
+            .deletedRecords(deleted.get())
+            .notFoundRecords(notFound.get())
+            .failedRecords(failed.get())
+            .deletionsPerSecond(perSecond)
+            .duration(duration)
             .build();
     }
 
+    /**
+     * Reads the matching {@code sys_id}s a page at a time with keyset paging, so that deleting the records already read
+     * never shifts the following pages; a page is only requested once the previous one is being deleted.
+     */
+    private Flux<String> matching(RunContext runContext, String tableUri, String rQuery, int pageSize) {
+        var options = new Get.ReadOptions(true, true, Get.DisplayValue.FALSE, false);
+        var keys = List.of("sys_id");
+
+        return Flux.<List<String>, Cursor>generate(
+                () -> new Cursor(null, false),
+                (cursor, sink) -> {
+                    if (cursor.done()) {
+                        sink.complete();
+                        return cursor;
+                    }
+
+                    try {
+                        var page = new ArrayList<String>(pageSize);
+                        var queryString = Get.queryString(Get.keysetQuery(rQuery, keys, cursor.last()), pageSize, null, keys, List.of(), options);
+                        var response = this.stream(
+                            runContext,
+                            HttpRequest.builder().uri(URI.create(tableUri + "?" + queryString)).method("GET"),
+                            record -> page.add(Get.keyValues(record, keys).getFirst())
+                        );
+
+                        if (page.isEmpty()) {
+                            sink.complete();
+                            return cursor;
+                        }
+
+                        sink.next(page);
+                        return new Cursor(List.of(page.getLast()), page.size() < pageSize && Get.nextLink(response.getHeaders()).isEmpty());
+                    } catch (Exception e) {
+                        sink.error(e);
+                        return cursor;
+                    }
+                }
+            )
+            .flatMapIterable(page -> page);
+    }
+
+    private record Cursor(List<String> last, boolean done) {
+    }
+
+    private static Flux<String> read(RunContext runContext, URI from) throws Exception {
+        var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE);
+
+        return FileSerde.readAll(reader)
+            .map(Delete::sysIdOf)
+            .doFinally(throwConsumer(ignored -> reader.close()));
+    }
+
+    static String sysIdOf(Object row) {
+        if (row instanceof Map<?, ?> map) {
+            var value = map.get("sys_id") != null ? map.get("sys_id") : map.get("sysId");
+            // a reference-style {link, value} sys_id
+            if (value instanceof Map<?, ?> reference) {
+                value = reference.get("value");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Row without a `sys_id` or `sysId` field: " + map.keySet());
+            }
+            return value.toString();
+        }
+
+        return row.toString();
+    }
+
+    private long count(RunContext runContext, String tableUri, String rQuery) throws Exception {
+        var response = this.stream(
+            runContext,
+            HttpRequest.builder()
+                .uri(URI.create(tableUri + "?sysparm_limit=1&sysparm_fields=sys_id&sysparm_query=" + URLEncoder.encode(rQuery, StandardCharsets.UTF_8)))
+                .method("GET"),
+            record -> {}
+        );
+
+        return response.getHeaders().firstValueAsLong("X-Total-Count")
+            .orElseThrow(() -> new IllegalStateException("No X-Total-Count header returned, cannot enforce `maxRecords`"));
+    }
+
+    private static long count(RunContext runContext, URI from) throws Exception {
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE)) {
+            return FileSerde.readAll(reader).count().block();
+        }
+    }
+
+    /**
+     * Deletes one record; a {@code 404}, which a DELETE retried after its first attempt went through also gets, is
+     * reported as {@code notFound} rather than as a failure.
+     */
+    private Map<String, Object> deleteOne(RunContext runContext, String tableUri, long index, String sysId) throws Exception {
+        var row = new LinkedHashMap<String, Object>();
+        row.put("index", index);
+        row.put("sysId", sysId);
+
+        try {
+            this.request(runContext, HttpRequest.builder().uri(URI.create(tableUri + "/" + Batch.Operation.pathSegment(sysId))).method("DELETE"), Void.class);
+            row.put("deleted", true);
+        } catch (HttpClientResponseException e) {
+            row.put("deleted", false);
+            if (e.getResponse() != null && e.getResponse().getStatus().getCode() == HttpStatus.NOT_FOUND.getCode()) {
+                row.put("notFound", true);
+            } else {
+                row.put("error", e.getMessage());
+            }
+        }
+
+        return row;
+    }
+
+    private List<Map<String, Object>> deleteBatch(RunContext runContext, String baseUri, String table, List<Tuple2<Long, String>> envelope) throws Exception {
+        var operations = envelope.stream()
+            .map(id -> Tuples.of(id.getT1(), Batch.Operation.builder().method("DELETE").table(table).sysId(id.getT2()).build()))
+            .toList();
+
+        return Batch.send(this, runContext, baseUri, operations).stream()
+            .<Map<String, Object>>map(result -> {
+                var row = new LinkedHashMap<String, Object>();
+                row.put("index", result.get("index"));
+                row.put("sysId", result.get("sysId"));
+                row.put("deleted", result.get("success"));
+                if (Integer.valueOf(HttpStatus.NOT_FOUND.getCode()).equals(result.get("statusCode"))) {
+                    row.put("notFound", true);
+                } else if (result.get("error") != null) {
+                    row.put("error", result.get("error"));
+                }
+                return row;
+            })
+            .toList();
+    }
+
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
-        @Schema(title = "Whether the record was deleted")
+        @Schema(
+            title = "Whether the record was deleted",
+            description = "With `query` or `from`, whether every record was deleted or already gone."
+        )
         private boolean deleted;
+
+        @Schema(
+            title = "Outcomes URI",
+            description = """
+                ION file with one row per record, in input order: its `index`, `sysId`, whether it was `deleted`, and if not \
+                either `notFound` or the `error`. Set only with `query` or `from`."""
+        )
+        private URI uri;
+
+        @Schema(title = "Records deleted", description = "Set only with `query` or `from`.")
+        private Long deletedRecords;
+
+        @Schema(
+            title = "Records not found",
+            description = "Records the instance answered `404` for: already deleted, possibly by an earlier attempt of a retried request. Set only with `query` or `from`."
+        )
+        private Long notFoundRecords;
+
+        @Schema(title = "Records that failed to delete", description = "Set only with `query` or `from`.")
+        private Long failedRecords;
+
+        @Schema(title = "Throughput", description = "Records deleted per second of wall time. Set only with `query` or `from`.")
+        private Double deletionsPerSecond;
+
+        @Schema(title = "Wall time", description = "Set only with `query` or `from`.")
+        private Duration duration;
     }
 }
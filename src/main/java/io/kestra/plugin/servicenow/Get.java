@@ -2,20 +2,39 @@ package io.kestra.plugin.servicenow;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpHeaders;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 
 import io.kestra.core.http.HttpRequest;
-import io.kestra.core.http.HttpResponse;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.models.tasks.common.FetchType;
@@ -114,22 +133,110 @@ import io.kestra.core.models.annotations.PluginProperty;
                     table: incident
                     fetchType: STORE
                 """
+        ),
+        @Example(
+            title = "Export a whole table to internal storage, one page at a time.",
+            full = true,
+            code = """
+                id: servicenow_get_export
+                namespace: company.team
+
+                tasks:
+                  - id: get
+                    type: io.kestra.plugin.servicenow.Get
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    fetchType: STORE
+                    paginate: true
+                    pageSize: 5000
+                    concurrency: 4
+                """
+        ),
+        @Example(
+            title = "Export incidents straight to a Parquet file.",
+            full = true,
+            code = """
+                id: servicenow_get_parquet
+                namespace: company.team
+
+                tasks:
+                  - id: get
+                    type: io.kestra.plugin.servicenow.Get
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    fields:
+                      - number
+                      - short_description
+                      - priority
+                      - sys_updated_on
+                    fetchType: STORE
+                    format: PARQUET
+                    paginate: true
+                """
+        ),
+        @Example(
+            title = "Nightly export of the incidents changed since the previous run.",
+            full = true,
+            code = """
+                id: servicenow_get_incremental
+                namespace: company.team
+
+                tasks:
+                  - id: get
+                    type: io.kestra.plugin.servicenow.Get
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    fetchType: STORE
+                    incremental: true
+
+                triggers:
+                  - id: nightly
+                    type: io.kestra.plugin.core.trigger.Schedule
+                    cron: "0 2 * * *"
+                """
         )
     }
 )
 public class Get extends AbstractServiceNow implements RunnableTask<Get.Output> {
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"?next\"?");
+
     @Schema(
         title = "Fetch type",
         description = """
             Controls how results are returned:
             FETCH (default) returns all records in memory,
             FETCH_ONE returns only the first record,
-            STORE writes all records as ION to internal storage and returns a URI.
+            STORE writes all records to internal storage in the chosen `format` and returns a URI.
             """
     )
     @Builder.Default
     private Property<FetchType> fetchType = Property.ofValue(FetchType.FETCH);
 
+    @Schema(
+        title = "Stored file format",
+        description = """
+            Format of the file written with STORE, record by record as the pages are read:
+            ION (default), JSONL, CSV, PARQUET or AVRO.
+            CSV, PARQUET and AVRO columns are the `fields` when set, as strings; otherwise they are inferred from the first `schemaSampleSize` records,
+            and fields first seen after them are dropped. Reference fields are written as their `value`.
+            """
+    )
+    @Builder.Default
+    private Property<Format> format = Property.ofValue(Format.ION);
+
+    @Schema(
+        title = "Schema sample size",
+        description = "Number of records held back to infer the columns of CSV, PARQUET and AVRO files when `fields` is not set."
+    )
+    @Builder.Default
+    private Property<Integer> schemaSampleSize = Property.ofValue(100);
+
     @NotNull
     @Schema(
         title = "ServiceNow table",
@@ -146,7 +253,7 @@ public class Get extends AbstractServiceNow implements RunnableTask<Get.Output>
 
     @Schema(
         title = "Maximum records to return",
-        description = "Appended as `sysparm_limit`. When absent, ServiceNow applies its own default limit."
+        description = "Appended as `sysparm_limit`. When absent, ServiceNow applies its own default limit. When `paginate` is enabled, caps the total number of records read across all pages."
     )
     private Property<Integer> limit;
 
@@ -162,92 +269,599 @@ public class Get extends AbstractServiceNow implements RunnableTask<Get.Output>
     )
     private Property<List<String>> fields;
 
+    @Schema(
+        title = "Automatically paginate",
+        description = """
+            When true, keeps requesting pages of `pageSize` records until the table is drained or `limit` records were read.
+            The next page is taken from the `Link: rel="next"` response header, or by advancing `sysparm_offset` when the header is absent.
+            With STORE, each page is written to internal storage as it arrives so memory stays bounded to one page.
+            """
+    )
+    @Builder.Default
+    private Property<Boolean> paginate = Property.ofValue(false);
+
+    @Schema(
+        title = "Page size",
+        description = "Records requested per call (`sysparm_limit`) when `paginate` is enabled."
+    )
+    @Builder.Default
+    private Property<Integer> pageSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Concurrent page requests",
+        description = """
+            When greater than 1 with `paginate` enabled, the first page is used as a probe to read the `X-Total-Count` header,
+            then the remaining offset range is split into pages fetched concurrently on virtual threads, with at most this many requests in flight.
+            Records are still emitted in offset order. Falls back to sequential pagination when ServiceNow does not return a total count.
+            """
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(1);
+
+    @Schema(
+        title = "Pagination mode",
+        description = """
+            OFFSET (default) advances `sysparm_offset` between pages.
+            KEYSET orders by `keysetFields` and fetches each next page with a "greater than the last key" condition added to `query`,
+            so every page costs the same however deep the export goes and rows are neither skipped nor duplicated when records change mid-export.
+            KEYSET ignores `offset` and `concurrency`, and does not support `^NQ` or `ORDERBY` in `query`.
+            """
+    )
+    @Builder.Default
+    private Property<PaginationMode> paginationMode = Property.ofValue(PaginationMode.OFFSET);
+
+    @Schema(
+        title = "Keyset fields",
+        description = "Ordered list of fields forming a unique, monotonic key for KEYSET pagination, for example `[sys_updated_on, sys_id]`. They are added to `fields` when it is set."
+    )
+    @Builder.Default
+    private Property<List<String>> keysetFields = Property.ofValue(List.of("sys_id"));
+
+    @Schema(
+        title = "Typed values",
+        description = """
+            When true, the field types of `table` are read from `sys_dictionary`, following its `super_class` hierarchy, and raw string values are converted as records stream in:
+            integers and decimals to numbers, booleans, date times to UTC timestamps and dates to dates. Values that do not parse, reference objects and unknown fields are kept as returned.
+            The same types then drive the CSV, PARQUET and AVRO columns instead of inferring them. Not supported with `displayValue: TRUE`.
+            """
+    )
+    @Builder.Default
+    private Property<Boolean> typed = Property.ofValue(false);
+
+    @Schema(
+        title = "Schema cache TTL",
+        description = "How long the `sys_dictionary` types of a table are cached on the worker and shared by every task reading it, when `typed` is enabled."
+    )
+    @Builder.Default
+    private Property<Duration> schemaTtl = Property.ofValue(Duration.ofHours(1));
+
+    @Schema(
+        title = "Lean read profile",
+        description = """
+            Turns on the fastest combination of the payload options below unless they are set explicitly:
+            `noCount`, `excludeReferenceLink` and `suppressPaginationHeader` are enabled and `displayValue` is `FALSE`.
+            Without the total count, concurrent pagination falls back to sequential, so set `noCount: false` to keep `concurrency`.
+            """
+    )
+    @Builder.Default
+    private Property<Boolean> lean = Property.ofValue(false);
+
+    @Schema(
+        title = "Skip the total count",
+        description = "Sends `sysparm_no_count=true` so that ServiceNow does not compute `X-Total-Count` on every call. Concurrent pagination then falls back to sequential. Defaults to `lean`."
+    )
+    private Property<Boolean> noCount;
+
+    @Schema(
+        title = "Exclude reference links",
+        description = "Sends `sysparm_exclude_reference_link=true` so that reference fields come back as their value instead of a `{link, value}` object. Defaults to `lean`."
+    )
+    private Property<Boolean> excludeReferenceLink;
+
+    @Schema(
+        title = "Display values",
+        description = """
+            Sent as `sysparm_display_value`: FALSE returns the raw database values, the cheapest for ServiceNow to render,
+            TRUE the display values and ALL a `{display_value, value}` object per field. Left to the instance default when absent, or FALSE with `lean`.
+            TRUE is not supported with KEYSET pagination or `incremental`, as the keys must keep their raw values.
+            """
+    )
+    private Property<DisplayValue> displayValue;
+
+    @Schema(
+        title = "Suppress the pagination header",
+        description = """
+            Sends `sysparm_suppress_pagination_header=true` so that ServiceNow does not build the `Link` header.
+            Pagination then stops on the first short page, or on an empty page with KEYSET pagination. Defaults to `lean`.
+            """
+    )
+    private Property<Boolean> suppressPaginationHeader;
+
+    @Schema(
+        title = "Incremental sync",
+        description = """
+            When true, only reads the records changed since the previous run: a `sys_updated_on` high-water mark is kept in the namespace KV store, \
+            `sys_updated_on>=watermark` is added to `query` and the table is read with KEYSET pagination on `sys_updated_on,sys_id`.
+            Records already read at the exact second of the watermark are skipped, so each change is emitted once.
+            The watermark only advances once the output has been stored, so a failed run is read again in full by the next one.
+            ServiceNow compares the watermark in the time zone of the `username` account, which should therefore be UTC.
+            Not supported with FETCH_ONE.
+            """
+    )
+    @Builder.Default
+    private Property<Boolean> incremental = Property.ofValue(false);
+
+    @Schema(
+        title = "Watermark KV key",
+        description = "Key of the incremental watermark in the namespace KV store. Defaults to a key derived from `table` and `query`."
+    )
+    private Property<String> watermarkKey;
+
+    @Getter(AccessLevel.NONE)
+    private transient Watermark pendingWatermark;
+
     @Override
     public Get.Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            var output = this.read(runContext);
+            this.commitWatermark();
+            return output;
+        }
+    }
+
+    /**
+     * Reads the records without persisting the incremental watermark, left to {@link #commitWatermark()} once the
+     * caller, such as {@link Trigger}, has handed the output over.
+     */
+    Get.Output read(RunContext runContext) throws Exception {
         Logger logger = runContext.logger();
+        var start = Instant.now();
 
         var rTable = runContext.render(this.table).as(String.class).orElseThrow();
         var baseUrl = baseUri(runContext) + "api/now/table/" + rTable;
-        var queryString = buildQueryString(runContext);
-        var fullUrl = queryString.isEmpty() ? baseUrl : baseUrl + "?" + queryString;
-
-        var requestBuilder = HttpRequest.builder()
-            .uri(URI.create(fullUrl))
-            .method("GET");
+        var rOffset = runContext.render(this.offset).as(Integer.class).orElse(null);
+        var rFetchType = runContext.render(this.fetchType).as(FetchType.class).orElse(FetchType.FETCH);
+        var rPaginate = runContext.render(this.paginate).as(Boolean.class).orElse(false) && rFetchType != FetchType.FETCH_ONE;
 
-        var response = this.request(runContext, requestBuilder, GetResult.class);
+        Watermark watermark = null;
+        if (runContext.render(this.incremental).as(Boolean.class).orElse(false)) {
+            if (rFetchType == FetchType.FETCH_ONE) {
+                throw new IllegalArgumentException("`incremental` is not supported with FETCH_ONE");
+            }
 
-        if (response.getBody() == null) {
-            throw new IllegalStateException("Empty body on '" + response + "'");
+            var rWatermarkKey = runContext.render(this.watermarkKey).as(String.class).orElse(null);
+            watermark = Watermark.load(
+                runContext,
+                rWatermarkKey != null ? rWatermarkKey : Watermark.defaultKey(rTable, runContext.render(this.query).as(String.class).orElse(null))
+            );
+            logger.info("Reading records changed since {}", watermark.from() != null ? watermark.from() : "the beginning");
         }
+        var rWatermark = watermark;
 
-        logger.info("Get done with result '{}'", response.getBody());
-
-        var results = response.getBody().getResult();
-        var rOffset = runContext.render(this.offset).as(Integer.class).orElse(null);
-        var rFetchType = runContext.render(this.fetchType).as(FetchType.class).orElse(FetchType.FETCH);
+        TableSchema schema = null;
+        if (runContext.render(this.typed).as(Boolean.class).orElse(false)) {
+            if (this.readOptions(runContext).displayValue() == DisplayValue.TRUE) {
+                throw new IllegalArgumentException("`typed` is not supported with `displayValue: TRUE`");
+            }
+            schema = this.tableSchema(runContext, rTable, runContext.render(this.schemaTtl).as(Duration.class).orElse(Duration.ofHours(1)));
+        }
+        // typed copies are only made for the output, keyset and watermark tracking keep reading the raw values
+        UnaryOperator<Map<String, Object>> typing = schema != null ? schema::convert : UnaryOperator.identity();
+        var rSchema = schema;
 
-        return switch (rFetchType) {
+        var output = switch (rFetchType) {
             case FETCH_ONE -> {
-                List<Map<String, Object>> first = results.isEmpty()
-                    ? List.of()
-                    : List.of(results.getFirst());
+                var first = new ArrayList<Map<String, Object>>(1);
+                this.readPages(runContext, baseUrl, rOffset, false, null, record -> {
+                    if (first.isEmpty()) {
+                        first.add(typing.apply(record));
+                    }
+                });
+
                 yield Output.builder()
                     .results(first)
                     .size(first.size())
                     .offset(rOffset)
+                    .pages(1)
+                    .duration(Duration.between(start, Instant.now()))
                     .build();
             }
             case STORE -> {
-                var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
-                try (var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
-                    var flux = Flux.fromIterable(results);
-                    FileSerde.writeAll(output, flux).block();
+                var rFormat = runContext.render(this.format).as(Format.class).orElse(Format.ION);
+                var tempFile = runContext.workingDir().createTempFile(RecordFileWriter.extension(rFormat)).toFile();
+                var pages = new AtomicInteger();
+                long size;
+                if (rFormat == Format.ION) {
+                    try (var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
+                        Flux<Map<String, Object>> flux = Flux.create(sink -> {
+                            try {
+                                pages.set(this.readPages(runContext, baseUrl, rOffset, rPaginate, rWatermark, record -> sink.next(typing.apply(record))));
+                                sink.complete();
+                            } catch (Exception e) {
+                                sink.error(e);
+                            }
+                        });
+                        size = FileSerde.writeAll(output, flux).block();
+                    }
+                } else {
+                    var rFields = runContext.render(this.fields).asList(String.class);
+                    var rSampleSize = runContext.render(this.schemaSampleSize).as(Integer.class).orElse(100);
+                    try (var writer = RecordFileWriter.of(rFormat, tempFile, rFields, rSchema, rSampleSize, logger)) {
+                        pages.set(this.readPages(runContext, baseUrl, rOffset, rPaginate, rWatermark, record -> {
+                            try {
+                                writer.write(typing.apply(record));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+                        size = writer.count();
+                    }
                 }
-                var uri = runContext.storage().putFile(tempFile);
+
+                yield Output.builder()
+                    .size((int) size)
+                    .offset(rOffset)
+                    .uri(runContext.storage().putFile(tempFile))
+                    .pages(pages.get())
+                    .duration(Duration.between(start, Instant.now()))
+                    .build();
+            }
+            default -> {
+                var results = new ArrayList<Map<String, Object>>();
+                var pages = this.readPages(runContext, baseUrl, rOffset, rPaginate, rWatermark, record -> results.add(typing.apply(record)));
+
                 yield Output.builder()
+                    .results(results)
                     .size(results.size())
                     .offset(rOffset)
-                    .uri(uri)
+                    .pages(pages)
+                    .duration(Duration.between(start, Instant.now()))
                     .build();
             }
-            default -> Output.builder()
-                .results(results)
-                .size(results.size())
-                .offset(rOffset)
-                .build();
         };
+
+        var bytes = this.streamedBytes();
+        output = output.toBuilder().bytes(bytes).build();
+
+        // a summary only: logging the records themselves costs more than fetching them on large pages
+        logger.info(
+            "Get {} {} records of '{}' from {} pages ({} bytes) in {}",
+            rFetchType == FetchType.STORE ? "stored" : "fetched", output.getSize(), rTable, output.getPages(), bytes, output.getDuration()
+        );
+        runContext.metric(Counter.of("records", output.getSize(), "table", rTable));
+        runContext.metric(Counter.of("pages", output.getPages(), "table", rTable));
+        // compared with records, shows the payload saved per record by the lean options
+        var rLean = String.valueOf(runContext.render(this.lean).as(Boolean.class).orElse(false));
+        runContext.metric(Counter.of("response.bytes", bytes, "table", rTable, "lean", rLean));
+
+        this.pendingWatermark = watermark;
+        if (watermark != null) {
+            output = output.toBuilder().watermark(watermark.latest()).build();
+        }
+
+        return output;
+    }
+
+    void commitWatermark() throws Exception {
+        if (this.pendingWatermark != null) {
+            this.pendingWatermark.commit();
+            this.pendingWatermark = null;
+        }
+    }
+
+    /**
+     * Streams records to the consumer one by one, as they are parsed from the response body.
+     * Without pagination, sends a single request honouring {@code limit} and {@code offset}; otherwise requests pages
+     * until the table is drained or {@code limit} records were handed to the consumer. With a watermark, only reads the
+     * records changed since it, with keyset pagination on {@link Watermark#KEYSET}.
+     *
+     * @return the number of pages fetched
+     */
+    private int readPages(RunContext runContext, String baseUrl, Integer rOffset, boolean paginate, Watermark watermark, Consumer<Map<String, Object>> consumer) throws Exception {
+        var rLimit = runContext.render(this.limit).as(Integer.class).orElse(null);
+
+        if (!paginate && watermark == null) {
+            var queryString = buildQueryString(runContext, rLimit, rOffset);
+            var fullUrl = queryString.isEmpty() ? baseUrl : baseUrl + "?" + queryString;
+            this.stream(runContext, HttpRequest.builder().uri(URI.create(fullUrl)).method("GET"), consumer);
+            return 1;
+        }
+
+        var rPageSize = runContext.render(this.pageSize).as(Integer.class).orElse(1000);
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(1);
+        var rPaginationMode = runContext.render(this.paginationMode).as(PaginationMode.class).orElse(PaginationMode.OFFSET);
+
+        // the watermark must only move past records that were actually handed over
+        var sink = watermark != null ? consumer.andThen(watermark::observe) : consumer;
+        var read = new AtomicLong();
+        Consumer<Map<String, Object>> capped = record -> {
+            if (watermark != null && !watermark.isNew(record)) {
+                return;
+            }
+            if (rLimit == null || read.get() < rLimit) {
+                sink.accept(record);
+                read.incrementAndGet();
+            }
+        };
+
+        BooleanSupplier done = () -> rLimit != null && read.get() >= rLimit;
+        var rQuery = runContext.render(this.query).as(String.class).orElse(null);
+
+        if (watermark != null) {
+            return this.readKeyset(runContext, baseUrl, rPageSize, watermark.apply(rQuery), Watermark.KEYSET, watermark.start(), done, capped);
+        }
+
+        if (rPaginationMode == PaginationMode.KEYSET) {
+            return this.readKeyset(runContext, baseUrl, rPageSize, rQuery, runContext.render(this.keysetFields).asList(String.class), null, done, capped);
+        }
+
+        var offset = rOffset != null ? rOffset : 0;
+        var pages = 0;
+        var next = URI.create(baseUrl + "?" + buildQueryString(runContext, rPageSize, offset));
+
+        while (next != null) {
+            var response = this.stream(runContext, HttpRequest.builder().uri(next).method("GET"), capped);
+            pages++;
+
+            long records = response.getBody();
+            runContext.logger().debug("Fetched page {} with {} records at offset {}", pages, records, offset);
+
+            if (records == 0 || (rLimit != null && read.get() >= rLimit)) {
+                break;
+            }
+
+            offset += (int) records;
+
+            if (pages == 1 && rConcurrency > 1) {
+                var total = totalCount(response.getHeaders());
+                if (total.isPresent()) {
+                    var end = rLimit != null ? Math.min(total.get(), (long) offset - records + rLimit) : total.get();
+                    return pages + this.readRanges(runContext, baseUrl, offset, end, rPageSize, rConcurrency, capped);
+                }
+                runContext.logger().warn("No X-Total-Count header returned, falling back to sequential pagination");
+            }
+
+            var link = nextLink(response.getHeaders());
+            if (link.isPresent()) {
+                next = link.get();
+            } else if (hasLinkHeader(response.getHeaders()) || records < rPageSize) {
+                // ServiceNow sends a Link header without "next" on the last page; without any
+                // Link header, a short page is the only end-of-table signal we get
+                next = null;
+            } else {
+                next = URI.create(baseUrl + "?" + buildQueryString(runContext, rPageSize, offset));
+            }
+        }
+
+        return pages;
+    }
+
+    /**
+     * Seeks through the table ordered by {@code keysetFields}: each page adds a "greater than the last key read"
+     * condition to the encoded query, so every page costs the same whatever the depth and concurrent changes cannot
+     * shift rows between pages.
+     *
+     * @param start key to read after, or null to read from the first record
+     * @return the number of pages fetched
+     */
+    private int readKeyset(RunContext runContext, String baseUrl, int pageSize, String rQuery, List<String> rKeys, List<String> start, BooleanSupplier done, Consumer<Map<String, Object>> consumer) throws Exception {
+        if (rKeys == null || rKeys.isEmpty()) {
+            throw new IllegalArgumentException("`keysetFields` must not be empty with KEYSET pagination");
+        }
+        if (rQuery != null && (rQuery.contains("^NQ") || rQuery.contains("ORDERBY"))) {
+            throw new IllegalArgumentException("KEYSET pagination does not support `^NQ` or `ORDERBY` clauses in `query`");
+        }
+
+        var options = this.readOptions(runContext);
+        if (options.displayValue() == DisplayValue.TRUE) {
+            throw new IllegalArgumentException("KEYSET pagination and `incremental` do not support `displayValue: TRUE`, use ALL to keep the raw keys");
+        }
+
+        var pages = 0;
+        var last = start;
+
+        while (true) {
+            var lastRecord = new AtomicReference<Map<String, Object>>();
+            var queryString = buildQueryString(runContext, keysetQuery(rQuery, rKeys, last), pageSize, null, rKeys);
+            var response = this.stream(runContext, HttpRequest.builder().uri(URI.create(baseUrl + "?" + queryString)).method("GET"), record -> {
+                lastRecord.set(record);
+                consumer.accept(record);
+            });
+            pages++;
+
+            long records = response.getBody();
+            runContext.logger().debug("Fetched page {} with {} records after key {}", pages, records, last);
+
+            // a short page only ends the export when ServiceNow does not announce a next page, since ACLs can
+            // filter rows out of a page that is not the last one; without the header, only an empty page is safe
+            if (records == 0 || done.getAsBoolean() || (records < pageSize && !options.suppressPaginationHeader() && nextLink(response.getHeaders()).isEmpty())) {
+                return pages;
+            }
+
+            last = keyValues(lastRecord.get(), rKeys);
+        }
+    }
+
+    /**
+     * Builds the encoded query for the page following {@code last}: for keys {@code (a, b)} this is
+     * {@code query^a>va^NQquery^a=va^b>vb^ORDERBYa^ORDERBYb}.
+     */
+    static String keysetQuery(String rQuery, List<String> keys, List<String> last) {
+        var base = rQuery == null || rQuery.isEmpty() ? "" : rQuery + "^";
+        var order = keys.stream().map(key -> "ORDERBY" + key).collect(Collectors.joining("^"));
+
+        if (last == null) {
+            return base + order;
+        }
+
+        var segments = new ArrayList<String>(keys.size());
+        for (var i = 0; i < keys.size(); i++) {
+            var conditions = new ArrayList<String>(i + 1);
+            for (var j = 0; j < i; j++) {
+                conditions.add(keys.get(j) + "=" + last.get(j));
+            }
+            conditions.add(keys.get(i) + ">" + last.get(i));
+            segments.add(base + String.join("^", conditions));
+        }
+
+        return String.join("^NQ", segments) + "^" + order;
+    }
+
+    static List<String> keyValues(Map<String, Object> record, List<String> keys) {
+        return keys.stream()
+            .map(key -> {
+                var value = record.get(key);
+                // reference fields come back as {link, value}
+                if (value instanceof Map<?, ?> reference) {
+                    value = reference.get("value");
+                }
+                if (value == null) {
+                    throw new IllegalStateException("Keyset field '" + key + "' is missing from a returned record");
+                }
+                return value.toString();
+            })
+            .toList();
+    }
+
+    /**
+     * Fetches the {@code [from, to)} offset range in pages of {@code pageSize}, with up to {@code concurrency} requests
+     * in flight on virtual threads. Pages are handed to the consumer in offset order, so at most {@code concurrency}
+     * pages are buffered at any time.
+     *
+     * @return the number of pages fetched
+     */
+    private int readRanges(RunContext runContext, String baseUrl, long from, long to, int pageSize, int concurrency, Consumer<Map<String, Object>> consumer) throws Exception {
+        var pages = 0;
+        var window = new ArrayDeque<Future<List<Map<String, Object>>>>(concurrency);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var offset = from;
+            while (offset < to || !window.isEmpty()) {
+                while (offset < to && window.size() < concurrency) {
+                    var uri = URI.create(baseUrl + "?" + buildQueryString(runContext, pageSize, (int) offset));
+                    window.add(executor.submit(() -> {
+                        var records = new ArrayList<Map<String, Object>>(pageSize);
+                        this.stream(runContext, HttpRequest.builder().uri(uri).method("GET"), records::add);
+                        return records;
+                    }));
+                    offset += pageSize;
+                }
+
+                try {
+                    window.poll().get().forEach(consumer);
+                } catch (ExecutionException e) {
+                    window.forEach(future -> future.cancel(true));
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+                pages++;
+            }
+        }
+
+        runContext.logger().debug("Fetched {} pages concurrently from offset {} to {}", pages, from, to);
+
+        return pages;
+    }
+
+    private static Optional<Long> totalCount(HttpHeaders headers) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+
+        return headers.firstValue("X-Total-Count").map(Long::parseLong);
+    }
+
+    static Optional<URI> nextLink(HttpHeaders headers) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+
+        return headers.allValues("Link").stream()
+            .map(NEXT_LINK::matcher)
+            .filter(Matcher::find)
+            .map(matcher -> URI.create(matcher.group(1)))
+            .findFirst();
+    }
+
+    private static boolean hasLinkHeader(HttpHeaders headers) {
+        return headers != null && headers.firstValue("Link").isPresent();
+    }
+
+    private String buildQueryString(RunContext runContext, Integer rLimit, Integer rOffset) throws Exception {
+        return buildQueryString(runContext, runContext.render(this.query).as(String.class).orElse(null), rLimit, rOffset, List.of());
+    }
+
+    private String buildQueryString(RunContext runContext, String rQuery, Integer rLimit, Integer rOffset, List<String> requiredFields) throws Exception {
+        return queryString(
+            rQuery,
+            rLimit,
+            rOffset,
+            // asList returns T (List<String>) directly; it returns null when the property is absent
+            runContext.render(this.fields).asList(String.class),
+            requiredFields,
+            this.readOptions(runContext)
+        );
+    }
+
+    private ReadOptions readOptions(RunContext runContext) throws Exception {
+        var rLean = runContext.render(this.lean).as(Boolean.class).orElse(false);
+
+        return new ReadOptions(
+            runContext.render(this.noCount).as(Boolean.class).orElse(rLean),
+            runContext.render(this.excludeReferenceLink).as(Boolean.class).orElse(rLean),
+            runContext.render(this.displayValue).as(DisplayValue.class).orElse(rLean ? DisplayValue.FALSE : null),
+            runContext.render(this.suppressPaginationHeader).as(Boolean.class).orElse(rLean)
+        );
     }
 
-    private String buildQueryString(RunContext runContext) throws Exception {
+    static String queryString(String rQuery, Integer rLimit, Integer rOffset, List<String> rFields, List<String> requiredFields, ReadOptions options) {
         var parts = new ArrayList<String>();
 
-        Optional<String> rQuery = runContext.render(this.query).as(String.class);
-        if (rQuery.isPresent()) {
-            parts.add("sysparm_query=" + URLEncoder.encode(rQuery.get(), StandardCharsets.UTF_8));
+        if (rQuery != null && !rQuery.isEmpty()) {
+            parts.add("sysparm_query=" + URLEncoder.encode(rQuery, StandardCharsets.UTF_8));
         }
 
-        Optional<Integer> rLimit = runContext.render(this.limit).as(Integer.class);
-        if (rLimit.isPresent()) {
-            parts.add("sysparm_limit=" + rLimit.get());
+        if (rLimit != null) {
+            parts.add("sysparm_limit=" + rLimit);
         }
 
-        Optional<Integer> rOffset = runContext.render(this.offset).as(Integer.class);
-        if (rOffset.isPresent()) {
-            parts.add("sysparm_offset=" + rOffset.get());
+        if (rOffset != null) {
+            parts.add("sysparm_offset=" + rOffset);
         }
 
-        // asList returns T (List<String>) directly; it returns null when the property is absent
-        List<String> rFields = runContext.render(this.fields).asList(String.class);
         if (rFields != null && !rFields.isEmpty()) {
-            var joined = String.join(",", rFields);
+            var selected = new LinkedHashSet<>(rFields);
+            selected.addAll(requiredFields);
+            var joined = String.join(",", selected);
             parts.add("sysparm_fields=" + URLEncoder.encode(joined, StandardCharsets.UTF_8));
         }
 
+        if (options.noCount()) {
+            parts.add("sysparm_no_count=true");
+        }
+
+        if (options.excludeReferenceLink()) {
+            parts.add("sysparm_exclude_reference_link=true");
+        }
+
+        if (options.displayValue() != null) {
+            parts.add("sysparm_display_value=" + options.displayValue().name().toLowerCase());
+        }
+
+        if (options.suppressPaginationHeader()) {
+            parts.add("sysparm_suppress_pagination_header=true");
+        }
+
         return String.join("&", parts);
     }
 
-    @Builder
+    /**
+     * Table API parameters that only change how much ServiceNow computes and sends, not which records are read.
+     */
+    record ReadOptions(boolean noCount, boolean excludeReferenceLink, DisplayValue displayValue, boolean suppressPaginationHeader) {
+        static final ReadOptions DEFAULT = new ReadOptions(false, false, null, false);
+    }
+
+    @Builder(toBuilder = true)
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
@@ -270,9 +884,52 @@ public class Get extends AbstractServiceNow implements RunnableTask<Get.Output>
 
         @Schema(
             title = "Storage URI",
-            description = "URI of the ION file in internal storage. Set only when fetchType is STORE."
+            description = "URI of the stored file in internal storage, in the requested `format` (ION by default). Set only when fetchType is STORE."
         )
         private URI uri;
+
+        @Schema(
+            title = "Pages fetched",
+            description = "Number of requests sent to the table API."
+        )
+        private Integer pages;
+
+        @Schema(
+            title = "Response bytes",
+            description = "Decoded size of the response bodies read, to compare payload options such as `lean`."
+        )
+        private Long bytes;
+
+        @Schema(
+            title = "Wall time",
+            description = "Time spent fetching and writing all records."
+        )
+        private Duration duration;
+
+        @Schema(
+            title = "Incremental watermark",
+            description = "Highest `sys_updated_on` read, persisted for the next run. Set only when `incremental` is enabled."
+        )
+        private String watermark;
+    }
+
+    public enum DisplayValue {
+        FALSE,
+        TRUE,
+        ALL
+    }
+
+    public enum Format {
+        ION,
+        JSONL,
+        CSV,
+        PARQUET,
+        AVRO
+    }
+
+    public enum PaginationMode {
+        OFFSET,
+        KEYSET
     }
 
     @Data
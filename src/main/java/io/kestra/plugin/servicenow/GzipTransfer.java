@@ -0,0 +1,140 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.kestra.core.http.HttpResponse;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * gzip encoding of request and response bodies, reporting the bytes on the wire and the bytes decoded as metrics.
+ * <p>
+ * The HTTP client may already decode a gzip response by itself, dropping its {@code Content-Encoding} header: the wire
+ * size is then only known from {@code Content-Length}, when present, and is otherwise reported as the decoded size.
+ */
+final class GzipTransfer {
+    /**
+     * Below this size, a request body is not worth compressing.
+     */
+    static final int REQUEST_THRESHOLD = 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private GzipTransfer() {
+    }
+
+    /**
+     * @return the response body, decoded when gzip encoded, that reports the transfer metrics once closed
+     */
+    static InputStream decode(RunContext runContext, HttpResponse<InputStream> response) throws IOException {
+        return decode(runContext, response, decoded -> {});
+    }
+
+    /**
+     * @param onClose also given the decoded size once the body is closed
+     */
+    static InputStream decode(RunContext runContext, HttpResponse<InputStream> response, LongConsumer onClose) throws IOException {
+        var encoded = response.getHeaders() != null && response.getHeaders()
+            .firstValue("Content-Encoding")
+            .map(value -> value.trim().equalsIgnoreCase("gzip"))
+            .orElse(false);
+        var contentLength = response.getHeaders() != null
+            ? response.getHeaders().firstValueAsLong("Content-Length").orElse(-1)
+            : -1;
+
+        if (encoded) {
+            var wire = new CountingInputStream(response.getBody());
+            return new DecodedInputStream(runContext, new GZIPInputStream(wire, BUFFER_SIZE), wire, contentLength, onClose);
+        }
+
+        return new DecodedInputStream(runContext, response.getBody(), null, contentLength, onClose);
+    }
+
+    static byte[] encode(RunContext runContext, byte[] content) throws IOException {
+        var output = new ByteArrayOutputStream(content.length / 4);
+        try (var gzip = new GZIPOutputStream(output, BUFFER_SIZE)) {
+            gzip.write(content);
+        }
+
+        var encoded = output.toByteArray();
+        report(runContext, "http.request", encoded.length, content.length);
+
+        return encoded;
+    }
+
+    private static void report(RunContext runContext, String prefix, long wire, long decoded) {
+        runContext.metric(Counter.of(prefix + ".bytes.wire", wire));
+        runContext.metric(Counter.of(prefix + ".bytes.decoded", decoded));
+    }
+
+    static class CountingInputStream extends FilterInputStream {
+        protected long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static class DecodedInputStream extends CountingInputStream {
+        private final RunContext runContext;
+        private final CountingInputStream wire;
+        private final long contentLength;
+        private final LongConsumer onClose;
+        private boolean closed;
+
+        DecodedInputStream(RunContext runContext, InputStream in, CountingInputStream wire, long contentLength, LongConsumer onClose) {
+            super(in);
+            this.runContext = runContext;
+            this.wire = wire;
+            this.contentLength = contentLength;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            super.close();
+            report(runContext, "http.response", wire != null ? wire.count : contentLength >= 0 ? contentLength : count, count);
+            onClose.accept(count);
+        }
+    }
+}
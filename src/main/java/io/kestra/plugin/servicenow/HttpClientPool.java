@@ -0,0 +1,216 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.client.HttpClient;
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Pool of {@link HttpClient} scoped to a task run, so that the requests of a run, including those of its pages read in
+ * parallel or of the child reads of an {@code Export}, keep reusing the underlying connection pool instead of paying a
+ * TCP and TLS handshake each time.
+ * <p>
+ * A Kestra {@link HttpClient} logs and reports through the {@link RunContext} it is built with, so a client is never
+ * shared with another run. A client is leased for the duration of a request, bounded to {@code maxConnections}
+ * concurrent leases. The clients of a run are closed when its outermost {@link #scope(RunContext)} ends, or as soon as
+ * their last lease is released if one is still in flight then; within a long run, a client idle for longer than its
+ * keep-alive is closed on the next acquisition.
+ */
+final class HttpClientPool {
+    private static final Map<Key, Pooled> CLIENTS = new HashMap<>();
+    private static final Map<RunContext, Integer> SCOPES = new IdentityHashMap<>();
+
+    private HttpClientPool() {
+    }
+
+    /**
+     * @param runContext the run owning the client, compared by identity
+     * @param scope a digest of the rendered configuration, so that a run with several configurations gets one client each
+     */
+    record Key(RunContext runContext, String baseUri, String scope, int maxConnections, Duration keepAlive) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                && this.runContext == other.runContext
+                && this.baseUri.equals(other.baseUri)
+                && this.scope.equals(other.scope)
+                && this.maxConnections == other.maxConnections
+                && this.keepAlive.equals(other.keepAlive);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(runContext) + Objects.hash(baseUri, scope, maxConnections, keepAlive);
+        }
+    }
+
+    static Lease acquire(Key key, HttpConfiguration options) throws IllegalVariableEvaluationException {
+        Pooled pooled;
+        boolean created = false;
+
+        synchronized (CLIENTS) {
+            evictIdle();
+
+            pooled = CLIENTS.get(key);
+            if (pooled == null) {
+                pooled = new Pooled(new HttpClient(key.runContext(), options), new Semaphore(key.maxConnections()), key.keepAlive());
+                CLIENTS.put(key, pooled);
+                created = true;
+            }
+            pooled.leases++;
+        }
+
+        // created counts new connection pools, leases every request handed one: their ratio is the reuse
+        if (created) {
+            key.runContext().metric(Counter.of("http.client.created", 1));
+        }
+        key.runContext().metric(Counter.of("http.client.leases", 1));
+
+        try {
+            pooled.permits.acquire();
+        } catch (InterruptedException e) {
+            release(pooled);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a free connection", e);
+        }
+        return new Lease(pooled);
+    }
+
+    /**
+     * Opens a scope for a task run, typically around its whole {@code run}: nested scopes, such as the ones of the child
+     * tasks of an {@code Export} sharing its {@link RunContext}, keep the clients open until the outermost one ends.
+     */
+    static Scope scope(RunContext runContext) {
+        synchronized (CLIENTS) {
+            SCOPES.merge(runContext, 1, Integer::sum);
+        }
+        return new Scope(runContext);
+    }
+
+    private static void end(RunContext runContext) {
+        var closed = new ArrayList<Pooled>();
+
+        synchronized (CLIENTS) {
+            if (SCOPES.merge(runContext, -1, Integer::sum) > 0) {
+                return;
+            }
+            SCOPES.remove(runContext);
+
+            var iterator = CLIENTS.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (entry.getKey().runContext() == runContext) {
+                    iterator.remove();
+                    var pooled = entry.getValue();
+                    if (pooled.leases == 0) {
+                        closed.add(pooled);
+                    } else {
+                        // left to the last release, the request still in flight keeps using it
+                        pooled.closing = true;
+                    }
+                }
+            }
+        }
+
+        closed.forEach(HttpClientPool::close);
+    }
+
+    /**
+     * @return whether a client is pooled for the key, for tests
+     */
+    static boolean pooled(Key key) {
+        synchronized (CLIENTS) {
+            return CLIENTS.containsKey(key);
+        }
+    }
+
+    private static void release(Pooled pooled) {
+        boolean close;
+        synchronized (CLIENTS) {
+            pooled.leases--;
+            pooled.lastUsed = Instant.now();
+            close = pooled.closing && pooled.leases == 0;
+        }
+
+        if (close) {
+            close(pooled);
+        }
+    }
+
+    private static void close(Pooled pooled) {
+        try {
+            pooled.client.close();
+        } catch (IOException ignored) {
+            // the client is being discarded anyway
+        }
+    }
+
+    private static void evictIdle() {
+        var now = Instant.now();
+        var iterator = CLIENTS.values().iterator();
+        while (iterator.hasNext()) {
+            var pooled = iterator.next();
+            if (pooled.leases == 0 && pooled.lastUsed.plus(pooled.keepAlive).isBefore(now)) {
+                iterator.remove();
+                close(pooled);
+            }
+        }
+    }
+
+    private static final class Pooled {
+        private final HttpClient client;
+        private final Semaphore permits;
+        private final Duration keepAlive;
+        private int leases;
+        private boolean closing;
+        private Instant lastUsed = Instant.now();
+
+        private Pooled(HttpClient client, Semaphore permits, Duration keepAlive) {
+            this.client = client;
+            this.permits = permits;
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    static final class Scope implements AutoCloseable {
+        private final RunContext runContext;
+
+        private Scope(RunContext runContext) {
+            this.runContext = runContext;
+        }
+
+        @Override
+        public void close() {
+            end(runContext);
+        }
+    }
+
+    static final class Lease implements AutoCloseable {
+        private final Pooled pooled;
+
+        private Lease(Pooled pooled) {
+            this.pooled = pooled;
+        }
+
+        HttpClient client() {
+            return pooled.client;
+        }
+
+        @Override
+        public void close() {
+            pooled.permits.release();
+            release(pooled);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.kestra.core.http.HttpRequest;
+import io.kestra.core.http.client.HttpClientException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Bulk load records through the ServiceNow Import Set API",
+    description = """
+        Streams records from an ION file into `/api/now/import/{stagingTable}/insertMultiple` in chunks of `chunkSize`, \
+        with up to `concurrency` chunks in flight. Transform maps run on the ServiceNow side.
+        Per-row import results are written to an ION file, and the outcome of each transform is counted."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Load users into a staging table and let the transform map create them.",
+            full = true,
+            code = """
+                id: servicenow_import_set
+                namespace: company.team
+
+                tasks:
+                  - id: import
+                    type: io.kestra.plugin.servicenow.ImportSet
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    stagingTable: u_user_import
+                    from: "{{ outputs.extract.uri }}"
+                    chunkSize: 500
+                    concurrency: 4
+                """
+        )
+    }
+)
+public class ImportSet extends AbstractServiceNow implements RunnableTask<ImportSet.Output> {
+    // keeps each insertMultiple request within the payload size and transaction time an instance accepts
+    static final int MAX_CHUNK_SIZE = 1000;
+
+    @NotNull
+    @Schema(
+        title = "Staging table",
+        description = "API name of the import set staging table (for example `u_user_import`)."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> stagingTable;
+
+    @NotNull
+    @Schema(
+        title = "Records file",
+        description = "Internal storage URI of an ION file with one staging record per row."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @NotNull
+    @Schema(
+        title = "Records per call",
+        description = "Number of records sent in each `insertMultiple` request, from 1 to 1000."
+    )
+    @Builder.Default
+    private Property<Integer> chunkSize = Property.ofValue(200);
+
+    @NotNull
+    @Schema(
+        title = "Concurrent calls",
+        description = "Maximum number of `insertMultiple` requests in flight at once."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(2);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            Logger logger = runContext.logger();
+            var start = Instant.now();
+
+            var rChunkSize = runContext.render(this.chunkSize).as(Integer.class).orElse(200);
+            var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(2);
+            if (rChunkSize < 1 || rChunkSize > MAX_CHUNK_SIZE) {
+                throw new IllegalArgumentException("`chunkSize` must be between 1 and " + MAX_CHUNK_SIZE);
+            }
+            if (rConcurrency < 1) {
+                throw new IllegalArgumentException("`concurrency` must be at least 1");
+            }
+            var uri = URI.create(baseUri(runContext) + "api/now/import/" + runContext.render(this.stagingTable).as(String.class).orElseThrow() + "/insertMultiple");
+            var rFrom = URI.create(runContext.render(this.from).as(String.class).orElseThrow());
+
+            var rows = new AtomicLong();
+            var failed = new AtomicLong();
+            var statuses = new ConcurrentHashMap<String, Long>();
+            var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+            try (
+                var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(rFrom), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE);
+                var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)
+            ) {
+                Flux<Map<String, Object>> flux = FileSerde.readAll(reader)
+                    .index()
+                    .buffer(rChunkSize)
+                    .flatMapSequential(
+                        chunk -> Mono.fromCallable(() -> this.insertMultiple(runContext, uri, chunk))
+                            .subscribeOn(Schedulers.boundedElastic()),
+                        rConcurrency
+                    )
+                    .flatMapIterable(results -> results)
+                    .doOnNext(row -> {
+                        if (row.containsKey("error")) {
+                            failed.incrementAndGet();
+                            return;
+                        }
+                        rows.incrementAndGet();
+                        if (row.get("status") != null) {
+                            statuses.merge(row.get("status").toString(), 1L, Long::sum);
+                        }
+                    });
+
+                FileSerde.writeAll(output, flux).block();
+            }
+
+            var duration = Duration.between(start, Instant.now());
+            var rowsPerSecond = duration.toMillis() > 0 ? rows.get() * 1000d / duration.toMillis() : (double) rows.get();
+            logger.info(
+                "Imported {} rows ({} failed) in {} ({} rows/s), transform outcomes {}",
+                rows.get(), failed.get(), duration, String.format("%.1f", rowsPerSecond), statuses
+            );
+
+            return Output.builder()
+                .uri(runContext.storage().putFile(tempFile))
+                .rows(rows.get())
+                .failed(failed.get())
+                .rowsPerSecond(rowsPerSecond)
+                .statuses(Map.copyOf(statuses))
+                .duration(duration)
+                .build();
+        }
+    }
+
+    /**
+     * Sends one chunk and returns a row per input record: ServiceNow transform results, in input order, when the
+     * response carries them, otherwise the import set the record was staged in. A chunk that cannot be imported gets an
+     * {@code error} row per record instead of failing the run.
+     */
+    private List<Map<String, Object>> insertMultiple(RunContext runContext, URI uri, List<Tuple2<Long, Object>> chunk) throws Exception {
+        var records = chunk.stream().map(Tuple2::getT2).toList();
+
+        var requestBuilder = HttpRequest.builder()
+            .uri(uri)
+            .method("POST")
+            .body(HttpRequest.JsonRequestBody.builder().content(Map.of("records", records)).build());
+
+        ImportResult response;
+        try {
+            response = this.request(runContext, requestBuilder, ImportResult.class).getBody();
+        } catch (HttpClientException | RuntimeException e) {
+            var error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            runContext.logger().warn("insertMultiple failed for rows {} to {}: {}", chunk.getFirst().getT1(), chunk.getLast().getT1(), error);
+
+            var rows = new ArrayList<Map<String, Object>>(chunk.size());
+            for (var entry : chunk) {
+                var row = new LinkedHashMap<String, Object>();
+                row.put("index", entry.getT1());
+                row.put("error", error);
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        var rows = new ArrayList<Map<String, Object>>(chunk.size());
+        for (var i = 0; i < chunk.size(); i++) {
+            var row = new LinkedHashMap<String, Object>();
+            row.put("index", chunk.get(i).getT1());
+            if (response != null) {
+                row.put("importSetId", response.getImportSetId());
+                if (response.getResult() != null && i < response.getResult().size()) {
+                    row.putAll(response.getResult().get(i));
+                }
+            }
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ImportResult {
+        @JsonProperty("import_set_id")
+        String importSetId;
+
+        @JsonProperty("multi_import_set_id")
+        String multiImportSetId;
+
+        List<Map<String, Object>> result;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Storage URI",
+            description = """
+                ION file with one row per input record: its `index`, the `importSetId` and, when returned, the transform result \
+                (`status`, `table`, `sys_id`, `status_message`...), or an `error` when its chunk could not be imported."""
+        )
+        private URI uri;
+
+        @Schema(title = "Rows imported")
+        private Long rows;
+
+        @Schema(
+            title = "Rows that failed to import",
+            description = "Rows of the chunks rejected by the instance or left failing after retries."
+        )
+        private Long failed;
+
+        @Schema(title = "Throughput in rows per second")
+        private Double rowsPerSecond;
+
+        @Schema(
+            title = "Transform outcome counts",
+            description = "Number of rows per transform `status`, for example `inserted`, `updated`, `ignored`, `skipped` or `error`."
+        )
+        private Map<String, Long> statuses;
+
+        @Schema(title = "Wall time")
+        private Duration duration;
+    }
+}
@@ -1,17 +1,35 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -73,6 +91,24 @@ import io.kestra.core.models.annotations.PluginProperty;
                       requester_for_id: a7ec77cbdefac300d322d182689619dc
                       product_id: 01a2e3c1db15f340d329d18c689ed922
                 """
+        ),
+        @Example(
+            title = "Bulk insert CMDB records from an ION file.",
+            full = true,
+            code = """
+                id: servicenow_post_bulk
+                namespace: company.team
+
+                tasks:
+                  - id: post
+                    type: io.kestra.plugin.servicenow.Post
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: cmdb_ci_server
+                    from: "{{ outputs.extract.uri }}"
+                    concurrency: 16
+                """
         )
     }
 )
@@ -85,48 +121,185 @@ public class Post extends AbstractServiceNow implements RunnableTask<Post.Output
     @PluginProperty(group = "main")
     private Property<String> table;
 
-    @NotNull
     @Schema(
         title = "Record payload",
-        description = "Map rendered to JSON and sent as the request body."
+        description = "Map rendered to JSON and sent as the request body. Either `data` or `from` must be set."
     )
     @PluginProperty(group = "main")
     private Property<Map<String, Object>> data;
 
+    @Schema(
+        title = "Records file",
+        description = """
+            Internal storage URI of an ION file with one record per row, each inserted with its own request.
+            Records are streamed from the file, so memory stays flat whatever its size.
+            The created `sys_id`s and any failures are written to the output `uri`."""
+    )
+    @PluginProperty(group = "main")
+    private Property<String> from;
+
+    @Schema(
+        title = "Concurrent inserts",
+        description = "Maximum number of insert requests in flight at once when reading records `from` a file."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Correlation field",
+        description = """
+            Field set to a generated unique value on each record that has none, for example `correlation_id`, which makes \
+            inserts safe to retry after a transient failure: the record is looked up by this value before being sent again, \
+            so that it is never created twice. Without it, inserts are not retried."""
+    )
+    private Property<String> correlationField;
+
     @Override
     public Post.Output run(RunContext runContext) throws Exception {
-        Logger logger = runContext.logger();
-
-        HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
-            .uri(URI.create(baseUri(runContext) + "api/now/table/" + runContext.render(this.table).as(String.class).orElseThrow()))
-            .method("POST")
-            .body(
-                HttpRequest.JsonRequestBody.builder()
-                    .content(runContext.render(data).asMap(String.class, Object.class))
-                    .build()
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            Logger logger = runContext.logger();
+
+            var rFrom = runContext.render(this.from).as(String.class);
+            if (rFrom.isPresent()) {
+                return this.bulk(runContext, URI.create(rFrom.get()));
+            }
+
+            if (this.data == null) {
+                throw new IllegalArgumentException("Either `data` or `from` must be set");
+            }
+
+            HttpResponse<PostResult> response = this.create(
+                runContext,
+                baseUri(runContext) + "api/now/table/" + runContext.render(this.table).as(String.class).orElseThrow(),
+                null,
+                runContext.render(data).asMap(String.class, Object.class)
             );
 
-        HttpResponse<PostResult> response = this.request(runContext, requestBuilder, PostResult.class);
+            if (response.getBody() == null) {
+                throw new IllegalStateException("Empty body on '" + response + "'");
+            }
+
+            logger.info("Post done with result '{}'", response.getBody());
 
-        if (response.getBody() == null) {
-            throw new IllegalStateException("Empty body on '" + response + "'");
+            return Output.builder()
+                .result(response.getBody().getResult())
+                .build();
         }
+    }
 
-        logger.info("Post done with result '{}'", response.getBody());
+    private Post.Output bulk(RunContext runContext, URI from) throws Exception {
+        var start = Instant.now();
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+        var tableUri = baseUri(runContext) + "api/now/table/" + runContext.render(this.table).as(String.class).orElseThrow();
+
+        var created = new AtomicLong();
+        var failed = new AtomicLong();
+        var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (
+            var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE);
+            var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)
+        ) {
+            Flux<Map<String, Object>> flux = FileSerde.readAll(reader)
+                .index()
+                .flatMap(
+                    row -> Mono.fromCallable(() -> this.insert(runContext, tableUri, row.getT1(), row.getT2()))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                    rConcurrency
+                )
+                .doOnNext(row -> (row.containsKey("error") ? failed : created).incrementAndGet());
+
+            FileSerde.writeAll(output, flux).block();
+        }
+
+        var duration = Duration.between(start, Instant.now());
+        runContext.logger().info("Post created {} records ({} failed) in {}", created.get(), failed.get(), duration);
 
         return Output.builder()
-            .result(response.getBody().getResult())
+            .uri(runContext.storage().putFile(tempFile))
+            .created(created.get())
+            .failed(failed.get())
+            .duration(duration)
             .build();
     }
 
+    /**
+     * @return the outcome row of the record: a failure of one record, whatever its cause, never aborts the others
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> insert(RunContext runContext, String tableUri, long index, Object record) throws Exception {
+        var row = new LinkedHashMap<String, Object>();
+        row.put("index", index);
+
+        if (!(record instanceof Map<?, ?>)) {
+            row.put("error", "Row is not a record but " + (record == null ? "null" : record.getClass().getSimpleName()));
+            return row;
+        }
+
+        try {
+            // only the sys_id is kept from each response, no need to have ServiceNow serialize the whole record
+            HttpResponse<PostResult> response = this.create(runContext, tableUri, "sys_id", (Map<String, Object>) record);
+            row.put("sysId", response.getBody() != null && response.getBody().getResult() != null ? response.getBody().getResult().get("sys_id") : null);
+        } catch (HttpClientException | RuntimeException e) {
+            // connection errors left after retries, and responses that cannot be parsed, fail this record only
+            row.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+
+        return row;
+    }
+
+    private HttpResponse<PostResult> create(RunContext runContext, String tableUri, String fields, Map<String, Object> record)
+        throws HttpClientException, IllegalVariableEvaluationException {
+
+        var parameters = fields != null ? "sysparm_fields=" + fields : null;
+        var requestBuilder = HttpRequest.builder()
+            .uri(URI.create(tableUri + (parameters != null ? "?" + parameters : "")))
+            .method("POST");
+
+        var rCorrelationField = runContext.render(this.correlationField).as(String.class);
+        if (rCorrelationField.isEmpty()) {
+            requestBuilder.body(HttpRequest.JsonRequestBody.builder().content(record).build());
+            return this.request(runContext, requestBuilder, PostResult.class);
+        }
+
+        var correlated = new LinkedHashMap<>(record);
+        var correlationId = correlated.computeIfAbsent(rCorrelationField.get(), key -> IdUtils.create()).toString();
+        requestBuilder.body(HttpRequest.JsonRequestBody.builder().content(correlated).build());
+
+        var lookup = URI.create(tableUri + "?sysparm_limit=1&sysparm_query=" +
+            URLEncoder.encode(rCorrelationField.get() + "=" + correlationId, StandardCharsets.UTF_8) +
+            (parameters != null ? "&" + parameters : ""));
+
+        return this.request(runContext, requestBuilder, PostResult.class, () -> {
+            var found = new PostResult();
+            this.stream(runContext, HttpRequest.builder().uri(lookup).method("GET"), found::setResult);
+            return found.getResult() != null ? Optional.of(found) : Optional.empty();
+        });
+    }
+
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
         @Schema(
             title = "Created record",
-            description = "ServiceNow response for the inserted row."
+            description = "ServiceNow response for the inserted row. Null when records are read `from` a file."
         )
         private Map<String, Object> result;
+
+        @Schema(
+            title = "Storage URI",
+            description = "ION file with one row per input record: its `index` in the file and either the created `sysId` or an `error`. Set only when records are read `from` a file."
+        )
+        private URI uri;
+
+        @Schema(title = "Records created", description = "Set only when records are read `from` a file.")
+        private Long created;
+
+        @Schema(title = "Records that failed to insert", description = "Set only when records are read `from` a file.")
+        private Long failed;
+
+        @Schema(title = "Wall time", description = "Set only when records are read `from` a file.")
+        private Duration duration;
     }
 
     @Data
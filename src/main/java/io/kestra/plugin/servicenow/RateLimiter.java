@@ -0,0 +1,227 @@
+package io.kestra.plugin.servicenow;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Worker-wide client-side rate limiter, one per instance and user since ServiceNow enforces its REST rate limits per
+ * user, so that parallel tasks queue their requests instead of failing on {@code 429 Too Many Requests}.
+ * <p>
+ * Each limiter is a token bucket which rate adapts to the instance: it is halved on each {@code 429} and then grows back
+ * by at most {@link #RATE_STEP} requests per second every second while requests succeed. The
+ * {@code X-RateLimit-Limit}, {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} headers of the responses are
+ * tracked to spread the last {@link #QUOTA_RESERVE} of the quota until its reset and to hold requests once it is used
+ * up, and {@code Retry-After} pauses all requests until the instance accepts them again.
+ * <p>
+ * The {@code rateLimit} of a task only caps the requests of that task, through a {@link #fixed(double)} limiter of its
+ * own acquired before the shared one, so that it never slows down the other tasks using the same instance and user.
+ */
+final class RateLimiter {
+    private static final Map<Key, RateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private static final double MIN_RATE = 0.1;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration RATE_WINDOW = Duration.ofSeconds(10);
+    private static final double RATE_STEP = 1;
+    private static final double QUOTA_RESERVE = 0.1;
+
+    private double maxRate = Double.POSITIVE_INFINITY;
+    private double rate = Double.POSITIVE_INFINITY;
+    private double tokens;
+    private Instant refilledAt = Instant.now();
+    private Instant increasedAt = Instant.now();
+    private Instant pausedUntil = Instant.MIN;
+
+    private long quotaLimit = -1;
+    private long quotaRemaining = -1;
+    private Instant quotaReset = Instant.MIN;
+
+    // requests let through since windowStart, to know the actual rate when the first 429 comes in
+    private long sent;
+    private Instant windowStart = Instant.now();
+
+    private RateLimiter() {
+    }
+
+    record Key(String baseUri, String username) {
+    }
+
+    /**
+     * @return the limiter shared by every task of the worker using this instance and user
+     */
+    static RateLimiter of(Key key) {
+        return LIMITERS.computeIfAbsent(key, k -> new RateLimiter());
+    }
+
+    /**
+     * @return a limiter of its own letting through at most {@code rate} requests per second, for the {@code rateLimit}
+     * of a task
+     */
+    static RateLimiter fixed(double rate) {
+        var limiter = new RateLimiter();
+        limiter.maxRate = rate;
+        limiter.rate = rate;
+        limiter.tokens = Math.max(1, rate);
+        return limiter;
+    }
+
+    /**
+     * Blocks until a request can be sent.
+     *
+     * @return the time spent waiting
+     */
+    Duration acquire() throws InterruptedException {
+        var start = System.nanoTime();
+
+        while (true) {
+            var wait = this.tryAcquire(Instant.now());
+            if (wait.isZero()) {
+                return Duration.ofNanos(System.nanoTime() - start);
+            }
+
+            Thread.sleep(wait.toMillis() + 1);
+        }
+    }
+
+    /**
+     * @return zero when a request can be sent now, otherwise how long to wait before trying again
+     */
+    synchronized Duration tryAcquire(Instant now) {
+        if (now.isBefore(pausedUntil)) {
+            return Duration.between(now, pausedUntil);
+        }
+
+        if (quotaRemaining == 0) {
+            if (now.isBefore(quotaReset)) {
+                return Duration.between(now, quotaReset);
+            }
+            quotaRemaining = -1;
+        }
+
+        var current = Math.min(rate, this.pace(now));
+        if (current != Double.POSITIVE_INFINITY) {
+            var capacity = Math.max(1, current);
+            tokens = Math.min(capacity, tokens + Duration.between(refilledAt, now).toNanos() / 1e9 * current);
+            refilledAt = now;
+
+            if (tokens < 1) {
+                return Duration.ofNanos((long) ((1 - tokens) / current * 1e9));
+            }
+            tokens--;
+        } else {
+            // a full bucket once the quota starts to be paced
+            tokens = 1;
+            refilledAt = now;
+        }
+
+        if (quotaRemaining > 0) {
+            quotaRemaining--;
+        }
+
+        if (Duration.between(windowStart, now).compareTo(RATE_WINDOW) > 0) {
+            windowStart = now;
+            sent = 0;
+        }
+        sent++;
+
+        return Duration.ZERO;
+    }
+
+    /**
+     * Records the rate limit headers of a successful response and lets the rate grow back.
+     */
+    void succeeded(HttpHeaders headers) {
+        this.succeeded(headers, Instant.now());
+    }
+
+    synchronized void succeeded(HttpHeaders headers, Instant now) {
+        this.quota(headers);
+
+        // additive increase bound to the time elapsed, so that a burst of successes at a low rate cannot undo the backoff
+        if (rate < maxRate) {
+            var elapsed = Math.min(1, Math.max(0, Duration.between(increasedAt, now).toNanos() / 1e9));
+            rate = Math.min(maxRate, rate + RATE_STEP * elapsed);
+        }
+        increasedAt = now;
+    }
+
+    /**
+     * Slows down after a {@code 429}, and pauses until the instance accepts requests again.
+     *
+     * @return how long requests are paused
+     */
+    synchronized Duration throttled(HttpHeaders headers, Instant now) {
+        this.quota(headers);
+
+        var current = rate != Double.POSITIVE_INFINITY
+            ? rate
+            : sent / Math.max(1, Duration.between(windowStart, now).toMillis() / 1000d);
+        rate = Math.max(MIN_RATE, current / 2);
+        tokens = 0;
+        refilledAt = now;
+        increasedAt = now;
+
+        var retryAfter = retryAfter(headers, now)
+            .or(() -> quotaReset.isAfter(now) ? Optional.of(Duration.between(now, quotaReset)) : Optional.empty())
+            .orElse(DEFAULT_RETRY_AFTER);
+
+        var until = now.plus(retryAfter);
+        if (until.isAfter(pausedUntil)) {
+            pausedUntil = until;
+        }
+
+        return retryAfter;
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    /**
+     * @return the rate spreading what is left of the advertised quota until its reset, once less than
+     * {@link #QUOTA_RESERVE} of it remains, rather than using it up at once and then waiting for the reset
+     */
+    private double pace(Instant now) {
+        if (quotaLimit <= 0 || quotaRemaining <= 0 || quotaRemaining >= quotaLimit * QUOTA_RESERVE || !quotaReset.isAfter(now)) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return Math.max(MIN_RATE, quotaRemaining / (Duration.between(now, quotaReset).toMillis() / 1000d));
+    }
+
+    private void quota(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+
+        headers.firstValueAsLong("X-RateLimit-Limit").ifPresent(limit -> quotaLimit = limit);
+        headers.firstValueAsLong("X-RateLimit-Reset").ifPresent(reset -> quotaReset = Instant.ofEpochSecond(reset));
+        headers.firstValueAsLong("X-RateLimit-Remaining").ifPresent(remaining -> quotaRemaining = Math.max(0, remaining));
+    }
+
+    static Optional<Duration> retryAfter(HttpHeaders headers, Instant now) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+
+        return headers.firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    var date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                    return Optional.of(date.isAfter(now) ? Duration.between(now, date) : Duration.ZERO);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+}
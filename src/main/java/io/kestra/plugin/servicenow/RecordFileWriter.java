@@ -0,0 +1,482 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Writes records to a file in one of the non-ION {@link Get.Format}s, as they are read from the response.
+ * <p>
+ * The columnar formats need their columns up front: they are taken from {@code fields} when set, otherwise from the
+ * {@link TableSchema} when loaded, otherwise the first {@code sampleSize} records are held back to infer them and
+ * fields that only appear after the sample are dropped. Column types come from the schema when loaded; without it,
+ * {@code fields} are strings since ServiceNow returns every value as a string. A value that does not match the type of
+ * its column, such as a non-numeric string in an integer field, is written as null with a warning once per column.
+ */
+abstract class RecordFileWriter implements AutoCloseable {
+    private static final ObjectMapper JSON = JacksonMapper.ofJson();
+
+    private long count;
+
+    static RecordFileWriter of(Get.Format format, File file, List<String> fields, TableSchema schema, int sampleSize, Logger logger) throws IOException {
+        return switch (format) {
+            case JSONL -> new JsonLines(file);
+            case CSV -> new Csv(file, fields, schema, sampleSize);
+            case AVRO -> new Avro(file, fields, schema, sampleSize, logger);
+            case PARQUET -> new Parquet(file, fields, schema, sampleSize, logger);
+            case ION -> throw new IllegalArgumentException("ION is written with FileSerde");
+        };
+    }
+
+    static String extension(Get.Format format) {
+        return switch (format) {
+            case ION -> ".ion";
+            case JSONL -> ".jsonl";
+            case CSV -> ".csv";
+            case AVRO -> ".avro";
+            case PARQUET -> ".parquet";
+        };
+    }
+
+    /**
+     * Called from the reading thread, or from the ones of concurrent pagination which hand records over in order.
+     */
+    synchronized void write(Map<String, Object> record) throws IOException {
+        this.append(record);
+        count++;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    protected abstract void append(Map<String, Object> record) throws IOException;
+
+    /**
+     * Plain value of a field: reference fields come back as {@code {link, value}} objects, or {@code {display_value, value}}
+     * with {@code sysparm_display_value=all}, and are reduced to their value; other nested values are kept as JSON.
+     */
+    static Object scalar(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            if (map.containsKey("value")) {
+                return scalar(map.get("value"));
+            }
+            if (map.containsKey("display_value")) {
+                return scalar(map.get("display_value"));
+            }
+        }
+
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            try {
+                return JSON.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                return value.toString();
+            }
+        }
+
+        return value;
+    }
+
+    enum Type {
+        STRING,
+        BOOLEAN,
+        LONG,
+        DOUBLE,
+        TIMESTAMP,
+        DATE;
+
+        static Type of(Object value) {
+            return switch (scalar(value)) {
+                case Boolean ignored -> BOOLEAN;
+                case Integer ignored -> LONG;
+                case Long ignored -> LONG;
+                case Number ignored -> DOUBLE;
+                case Instant ignored -> TIMESTAMP;
+                case LocalDate ignored -> DATE;
+                case null, default -> STRING;
+            };
+        }
+
+        static Type of(TableSchema.Kind kind) {
+            return switch (kind) {
+                case STRING -> STRING;
+                case INTEGER -> LONG;
+                case DECIMAL -> DOUBLE;
+                case BOOLEAN -> BOOLEAN;
+                case DATE_TIME -> TIMESTAMP;
+                case DATE -> DATE;
+            };
+        }
+
+        /**
+         * Widest type holding both, a column mixing numbers and strings falling back to strings.
+         */
+        Type merge(Type other) {
+            if (this == other) {
+                return this;
+            }
+            if ((this == LONG && other == DOUBLE) || (this == DOUBLE && other == LONG)) {
+                return DOUBLE;
+            }
+            return STRING;
+        }
+
+        /**
+         * @throws IllegalArgumentException when the value cannot be read as this type
+         */
+        Object convert(Object value) {
+            var scalar = scalar(value);
+            if (scalar == null || (scalar instanceof String string && string.isEmpty() && this != STRING)) {
+                return null;
+            }
+
+            try {
+                return switch (this) {
+                    case STRING -> scalar.toString();
+                    case BOOLEAN -> scalar instanceof Boolean b ? b : parseBoolean(scalar.toString());
+                    case LONG -> scalar instanceof Number n ? n.longValue() : Long.valueOf(scalar.toString());
+                    case DOUBLE -> scalar instanceof Number n ? n.doubleValue() : Double.valueOf(scalar.toString());
+                    case TIMESTAMP -> scalar instanceof Instant instant
+                        ? instant.toEpochMilli()
+                        : LocalDateTime.parse(scalar.toString(), TableSchema.DATE_TIME).toInstant(ZoneOffset.UTC).toEpochMilli();
+                    case DATE -> (int) (scalar instanceof LocalDate date ? date : LocalDate.parse(scalar.toString())).toEpochDay();
+                };
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+
+        private static Boolean parseBoolean(String value) {
+            if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                return Boolean.valueOf(value);
+            }
+            throw new IllegalArgumentException("For input string: \"" + value + "\"");
+        }
+    }
+
+    record Column(String name, Type type) {
+    }
+
+    private static final class JsonLines extends RecordFileWriter {
+        private final Writer output;
+
+        private JsonLines(File file) throws IOException {
+            this.output = writer(file);
+        }
+
+        @Override
+        protected void append(Map<String, Object> record) throws IOException {
+            output.write(JSON.writeValueAsString(record));
+            output.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * Holds records back until the columns are known, from {@code fields} or the first records.
+     */
+    private abstract static class Columnar extends RecordFileWriter {
+        private final int sampleSize;
+        private List<Map<String, Object>> sample = new ArrayList<>();
+        private List<Column> columns;
+
+        private Columnar(List<String> fields, TableSchema schema, int sampleSize) {
+            this.sampleSize = Math.max(1, sampleSize);
+            if (fields != null && !fields.isEmpty()) {
+                this.columns = fields.stream().distinct()
+                    .map(field -> new Column(field, schema != null ? Type.of(schema.kind(field)) : Type.STRING))
+                    .toList();
+            } else if (schema != null) {
+                this.columns = schema.fields().entrySet().stream()
+                    .map(e -> new Column(e.getKey(), Type.of(e.getValue())))
+                    .toList();
+            }
+        }
+
+        @Override
+        protected final void append(Map<String, Object> record) throws IOException {
+            if (columns == null) {
+                sample.add(record);
+                if (sample.size() >= sampleSize) {
+                    this.flushSample();
+                }
+                return;
+            }
+
+            if (sample != null) {
+                this.open(columns);
+                sample = null;
+            }
+            this.row(columns, record);
+        }
+
+        private void flushSample() throws IOException {
+            var types = new LinkedHashMap<String, Type>();
+            for (var record : sample) {
+                record.forEach((name, value) -> {
+                    // a null type is a field only seen empty so far, which does not narrow the column
+                    if (value != null) {
+                        types.merge(name, Type.of(value), Type::merge);
+                    } else {
+                        types.putIfAbsent(name, null);
+                    }
+                });
+            }
+            columns = types.entrySet().stream().map(e -> new Column(e.getKey(), e.getValue() != null ? e.getValue() : Type.STRING)).toList();
+
+            var held = sample;
+            sample = null;
+            this.open(columns);
+            for (var record : held) {
+                this.row(columns, record);
+            }
+        }
+
+        @Override
+        public final void close() throws IOException {
+            if (sample != null) {
+                if (columns == null) {
+                    this.flushSample();
+                } else {
+                    this.open(columns);
+                    sample = null;
+                }
+            }
+            this.finish();
+        }
+
+        protected abstract void open(List<Column> columns) throws IOException;
+
+        protected abstract void row(List<Column> columns, Map<String, Object> record) throws IOException;
+
+        protected abstract void finish() throws IOException;
+    }
+
+    private static final class Csv extends Columnar {
+        private final Writer output;
+
+        private Csv(File file, List<String> fields, TableSchema schema, int sampleSize) throws IOException {
+            super(fields, schema, sampleSize);
+            this.output = writer(file);
+        }
+
+        @Override
+        protected void open(List<Column> columns) throws IOException {
+            this.line(columns.stream().map(Column::name).toList());
+        }
+
+        @Override
+        protected void row(List<Column> columns, Map<String, Object> record) throws IOException {
+            var values = new ArrayList<String>(columns.size());
+            for (var column : columns) {
+                var value = scalar(record.get(column.name()));
+                values.add(value == null ? "" : value.toString());
+            }
+            this.line(values);
+        }
+
+        private void line(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    output.write(',');
+                }
+                output.write(escape(values.get(i)));
+            }
+            output.write("\r\n");
+        }
+
+        static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * Avro and Parquet records, every field being nullable and named after the ServiceNow field with the characters
+     * Avro does not allow, such as the dots of dot-walked fields, replaced by underscores.
+     */
+    private abstract static class AvroRecords extends Columnar {
+        private final Logger logger;
+        private final Set<String> invalidColumns = new HashSet<>();
+        protected Schema schema;
+
+        private AvroRecords(List<String> fields, TableSchema schema, int sampleSize, Logger logger) {
+            super(fields, schema, sampleSize);
+            this.logger = logger;
+        }
+
+        @Override
+        protected final void open(List<Column> columns) throws IOException {
+            var record = SchemaBuilder.record("Record").namespace("io.kestra.plugin.servicenow").fields();
+            var names = new HashSet<String>();
+            for (var column : columns) {
+                var name = avroName(column.name());
+                while (!names.add(name)) {
+                    name = name + "_";
+                }
+                var type = switch (column.type()) {
+                    case STRING -> SchemaBuilder.builder().stringType();
+                    case BOOLEAN -> SchemaBuilder.builder().booleanType();
+                    case LONG -> SchemaBuilder.builder().longType();
+                    case DOUBLE -> SchemaBuilder.builder().doubleType();
+                    case TIMESTAMP -> LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+                    case DATE -> LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+                };
+                record = record.name(name)
+                    .type(Schema.createUnion(Schema.create(Schema.Type.NULL), type))
+                    .withDefault(null);
+            }
+            this.schema = record.endRecord();
+            this.create(schema);
+        }
+
+        @Override
+        protected final void row(List<Column> columns, Map<String, Object> record) throws IOException {
+            var row = new GenericData.Record(schema);
+            for (int i = 0; i < columns.size(); i++) {
+                var column = columns.get(i);
+                row.put(i, this.convert(column, record.get(column.name())));
+            }
+            this.write(row);
+        }
+
+        private Object convert(Column column, Object value) {
+            try {
+                return column.type().convert(value);
+            } catch (IllegalArgumentException e) {
+                if (invalidColumns.add(column.name())) {
+                    logger.warn(
+                        "Field '{}' has a value that is not a valid {}, written as null: {}; further invalid values of this field are not logged",
+                        column.name(), column.type(), e.getMessage()
+                    );
+                }
+                return null;
+            }
+        }
+
+        protected abstract void create(Schema schema) throws IOException;
+
+        protected abstract void write(GenericRecord row) throws IOException;
+
+        static String avroName(String name) {
+            var sanitized = name.replaceAll("[^A-Za-z0-9_]", "_");
+            return sanitized.isEmpty() || Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+        }
+    }
+
+    private static final class Avro extends AvroRecords {
+        private final File file;
+        private DataFileWriter<GenericRecord> writer;
+
+        private Avro(File file, List<String> fields, TableSchema schema, int sampleSize, Logger logger) {
+            super(fields, schema, sampleSize, logger);
+            this.file = file;
+        }
+
+        @Override
+        protected void create(Schema schema) throws IOException {
+            writer = new DataFileWriter<GenericRecord>(new GenericDatumWriter<>(schema))
+                .setCodec(CodecFactory.snappyCodec());
+            writer.create(schema, file);
+        }
+
+        @Override
+        protected void write(GenericRecord row) throws IOException {
+            writer.append(row);
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class Parquet extends AvroRecords {
+        private final File file;
+        private ParquetWriter<GenericRecord> writer;
+
+        private Parquet(File file, List<String> fields, TableSchema schema, int sampleSize, Logger logger) {
+            super(fields, schema, sampleSize, logger);
+            this.file = file;
+        }
+
+        @Override
+        protected void create(Schema schema) throws IOException {
+            if (schema.getFields().isEmpty()) {
+                // Parquet cannot write an empty group: with no records and no fields to take the columns from, the file
+                // still gets the sys_id column every record has, so that readers get a valid file without rows
+                this.schema = SchemaBuilder.record("Record").namespace("io.kestra.plugin.servicenow").fields()
+                    .name("sys_id").type(Schema.createUnion(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.STRING))).withDefault(null)
+                    .endRecord();
+            }
+            writer = AvroParquetWriter.<GenericRecord>builder(new LocalOutputFile(file.toPath()))
+                .withConf(new PlainParquetConfiguration())
+                .withSchema(this.schema)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build();
+        }
+
+        @Override
+        protected void write(GenericRecord row) throws IOException {
+            writer.write(row);
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static Writer writer(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), FileSerde.BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,58 @@
+package io.kestra.plugin.servicenow;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry budget of a task run, with the exponential backoff and jitter between attempts.
+ * <p>
+ * Retries are capped to a share of the requests sent, so that an instance which is down makes a large bulk run fail
+ * fast instead of multiplying the load by the number of attempts.
+ */
+final class Retries {
+    /**
+     * Methods that can be sent again without changing the outcome.
+     */
+    static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "PATCH");
+
+    /**
+     * Transient gateway and availability errors.
+     */
+    static final Set<Integer> RETRYABLE_STATUS = Set.of(502, 503, 504);
+
+    private static final long MIN_BUDGET = 10;
+    private static final double BUDGET_RATIO = 0.1;
+    private static final Duration MAX_DELAY = Duration.ofSeconds(30);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    void sent() {
+        requests.incrementAndGet();
+    }
+
+    /**
+     * @return true, and counts a retry, while the budget allows another one
+     */
+    boolean tryRetry() {
+        while (true) {
+            var current = retries.get();
+            if (current >= MIN_BUDGET + requests.get() * BUDGET_RATIO) {
+                return false;
+            }
+            if (retries.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Full jitter: a random delay up to {@code initial * 2^attempt}, capped.
+     */
+    static Duration delay(Duration initial, int attempt) {
+        var ceiling = Math.min(MAX_DELAY.toMillis(), initial.toMillis() * (1L << Math.min(attempt, 20)));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.servicenow;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Connection settings shared by the tasks and the trigger: a new setting declared here has to be implemented by both,
+ * and is handed to the child tasks they build through {@link AbstractServiceNow#connection}.
+ */
+public interface ServiceNowConnectionInterface {
+    @NotNull
+    @Schema(
+        title = "ServiceNow domain",
+        description = "Subdomain used to build `https://<domain>.service-now.com/`; do not include protocol"
+    )
+    @PluginProperty(group = "main")
+    Property<String> getDomain();
+
+    @NotNull
+    @Schema(title = "ServiceNow username", description = "Used with 'password' for Basic Auth or with client credentials for the OAuth password grant")
+    @PluginProperty(group = "main", secret = true)
+    Property<String> getUsername();
+
+    @NotNull
+    @Schema(title = "ServiceNow password", description = "Account password used with 'username' for Basic Auth or OAuth password grant")
+    @PluginProperty(group = "main", secret = true)
+    Property<String> getPassword();
+
+    @Schema(title = "ServiceNow OAuth client ID", description = "Required with 'clientSecret' plus 'username' and 'password' to switch requests to OAuth bearer tokens")
+    @PluginProperty(group = "connection")
+    Property<String> getClientId();
+
+    @Schema(title = "ServiceNow OAuth client secret", description = "Paired with 'clientId' when using the OAuth password grant")
+    @PluginProperty(group = "connection", secret = true)
+    Property<String> getClientSecret();
+
+    @Schema(title = "Additional request headers", description = "Optional key/value headers rendered per execution and sent with every call")
+    @PluginProperty(group = "advanced")
+    Property<Map<CharSequence, CharSequence>> getHeaders();
+
+    @Schema(title = "HTTP client configuration", description = "Advanced HTTP settings such as timeouts, proxies, and TLS; defaults to Kestra HTTP client values")
+    @PluginProperty(group = "advanced")
+    HttpConfiguration getOptions();
+
+    @Schema(
+        title = "Maximum concurrent connections",
+        description = "Upper bound on requests in flight at once over the pooled HTTP client of this task run; further requests wait for a free connection."
+    )
+    @PluginProperty(group = "connection")
+    Property<Integer> getMaxConnections();
+
+    @Schema(
+        title = "Connection keep-alive",
+        description = "How long an idle pooled HTTP client, and its open connections, is kept for reuse by later requests of the same task run."
+    )
+    @PluginProperty(group = "connection")
+    Property<Duration> getKeepAlive();
+
+    @Schema(
+        title = "Compress responses",
+        description = "Ask for gzip encoded responses with `Accept-Encoding: gzip`, decoded while they are parsed. Table API JSON usually shrinks by about ten times."
+    )
+    @PluginProperty(group = "connection")
+    Property<Boolean> getCompression();
+
+    @Schema(
+        title = "Compress request bodies",
+        description = "Send JSON bodies of 1 KiB or more gzip encoded, with `Content-Encoding: gzip`, for example large `Post` or `Update` payloads."
+    )
+    @PluginProperty(group = "connection")
+    Property<Boolean> getRequestCompression();
+
+    @Schema(
+        title = "Maximum request rate",
+        description = """
+            Requests per second allowed for this task, on top of the rate shared by all tasks of the worker using this instance and user, \
+            which adapts to `429 Too Many Requests` responses and to the `X-RateLimit-*` and `Retry-After` headers. \
+            When absent, the rate is only limited by ServiceNow."""
+    )
+    @PluginProperty(group = "connection")
+    Property<Double> getRateLimit();
+
+    @Schema(
+        title = "Maximum rate limit wait",
+        description = "How long a request rejected with `429 Too Many Requests` is queued and sent again before the task fails."
+    )
+    @PluginProperty(group = "connection")
+    Property<Duration> getMaxRateLimitWait();
+
+    @Schema(
+        title = "Maximum retries",
+        description = """
+            Attempts after the first one for a request failing with a connection error or a `502`, `503` or `504` status. \
+            Only GET, PUT, PATCH and DELETE are retried, and POST when the task makes it safe; set to 0 to never retry."""
+    )
+    @PluginProperty(group = "connection")
+    Property<Integer> getMaxRetries();
+
+    @Schema(
+        title = "Initial retry delay",
+        description = "Upper bound of the random delay before the first retry, doubled on each following one up to 30 seconds; a longer `Retry-After` is honoured."
+    )
+    @PluginProperty(group = "connection")
+    Property<Duration> getRetryDelay();
+}
@@ -0,0 +1,169 @@
+package io.kestra.plugin.servicenow;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.client.HttpClientException;
+
+/**
+ * Field types of a table, read from {@code sys_dictionary} along its {@code super_class} hierarchy, and cached
+ * worker-wide so that every task reading the same table shares one copy until it expires.
+ * <p>
+ * The Table API returns every value as a string; {@link #convert(Map)} turns the raw values of a record into the Java
+ * type of their field. Display values, reference objects and values that do not parse are kept as they are.
+ */
+final class TableSchema {
+    static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private final Map<String, Kind> fields;
+
+    TableSchema(Map<String, Kind> fields) {
+        this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    }
+
+    static TableSchema get(Key key, Duration ttl, Loader loader) throws HttpClientException, IllegalVariableEvaluationException {
+        return ENTRIES.computeIfAbsent(key, k -> new Entry()).get(key.table(), ttl, loader);
+    }
+
+    record Key(String baseUri, String table) {
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * @return the fields of the table, including the inherited ones, with their {@code internal_type}
+         */
+        Map<String, String> load(String table) throws HttpClientException, IllegalVariableEvaluationException;
+    }
+
+    enum Kind {
+        STRING,
+        INTEGER,
+        DECIMAL,
+        BOOLEAN,
+        DATE_TIME,
+        DATE;
+
+        static Kind of(String internalType) {
+            return switch (internalType == null ? "" : internalType) {
+                case "integer", "longint", "auto_increment", "order_index" -> INTEGER;
+                case "decimal", "float", "percent_complete" -> DECIMAL;
+                case "boolean" -> BOOLEAN;
+                case "glide_date_time", "due_date", "calendar_date_time" -> DATE_TIME;
+                case "glide_date" -> DATE;
+                default -> STRING;
+            };
+        }
+
+        Object convert(String value) {
+            if (this == STRING) {
+                return value;
+            }
+            if (value.isEmpty()) {
+                return null;
+            }
+
+            try {
+                return switch (this) {
+                    case INTEGER -> Long.valueOf(value);
+                    case DECIMAL -> new BigDecimal(value);
+                    case BOOLEAN -> "true".equalsIgnoreCase(value) ? Boolean.TRUE : "false".equalsIgnoreCase(value) ? Boolean.FALSE : value;
+                    // raw date times are stored and returned in UTC
+                    case DATE_TIME -> LocalDateTime.parse(value, DATE_TIME).toInstant(ZoneOffset.UTC);
+                    case DATE -> LocalDate.parse(value);
+                    case STRING -> value;
+                };
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return value;
+            }
+        }
+    }
+
+    Map<String, Kind> fields() {
+        return fields;
+    }
+
+    Kind kind(String field) {
+        return fields.getOrDefault(field, Kind.STRING);
+    }
+
+    /**
+     * @return a typed copy of the record, the record itself being left untouched for keyset and watermark tracking
+     */
+    Map<String, Object> convert(Map<String, Object> record) {
+        var typed = new LinkedHashMap<String, Object>(record);
+        typed.replaceAll((name, value) -> value instanceof String string ? this.kind(name).convert(string) : value);
+        return typed;
+    }
+
+    /**
+     * Builds the schema from the {@code sys_dictionary} rows of a table hierarchy, ordered from the table itself to its
+     * root: a field redefined by a child table keeps the child's type.
+     */
+    static Map<String, String> merge(List<String> hierarchy, List<Map<String, Object>> rows) {
+        var byTable = new LinkedHashMap<String, Map<String, String>>();
+        hierarchy.forEach(table -> byTable.put(table, new LinkedHashMap<>()));
+
+        for (var row : rows) {
+            var table = value(row.get("name"));
+            var element = value(row.get("element"));
+            if (element == null || element.isEmpty() || !byTable.containsKey(table)) {
+                continue;
+            }
+            byTable.get(table).put(element, value(row.get("internal_type")));
+        }
+
+        var fields = new LinkedHashMap<String, String>();
+        byTable.values().forEach(types -> types.forEach(fields::putIfAbsent));
+        return fields;
+    }
+
+    private static String value(Object value) {
+        // reference fields come back as {link, value} unless links are excluded
+        if (value instanceof Map<?, ?> reference) {
+            value = reference.get("value");
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile TableSchema schema;
+        private volatile Instant expiresAt = Instant.MIN;
+
+        TableSchema get(String table, Duration ttl, Loader loader) throws HttpClientException, IllegalVariableEvaluationException {
+            if (this.schema != null && Instant.now().isBefore(expiresAt)) {
+                return this.schema;
+            }
+
+            lock.lock();
+            try {
+                if (this.schema == null || !Instant.now().isBefore(expiresAt)) {
+                    var types = loader.load(table);
+                    var kinds = new LinkedHashMap<String, Kind>();
+                    types.forEach((field, type) -> kinds.put(field, Kind.of(type)));
+                    this.schema = new TableSchema(kinds);
+                    this.expiresAt = Instant.now().plus(ttl);
+                }
+                return this.schema;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.kestra.plugin.servicenow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.http.client.HttpClientException;
+
+/**
+ * Worker-wide cache of OAuth access tokens, shared by every task running in the same JVM.
+ * <p>
+ * Tokens are refreshed {@link #REFRESH_MARGIN} before they expire. Only one caller per key fetches a token at a time;
+ * concurrent callers wait for it, or keep using the current token while it is still valid.
+ */
+final class TokenCache {
+    static final Duration REFRESH_MARGIN = Duration.ofSeconds(60);
+
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private TokenCache() {
+    }
+
+    static String get(Key key, Fetcher fetcher) throws HttpClientException, IllegalVariableEvaluationException {
+        return ENTRIES.computeIfAbsent(key, k -> new Entry()).get(fetcher);
+    }
+
+    /**
+     * Drops the token if it is still the cached one, for example after ServiceNow rejected it with a 401.
+     */
+    static void invalidate(Key key, String accessToken) {
+        var entry = ENTRIES.get(key);
+        if (entry != null) {
+            entry.invalidate(accessToken);
+        }
+    }
+
+    @FunctionalInterface
+    interface Fetcher {
+        /**
+         * @param previous the token being replaced, null on the first fetch; carries the refresh token when the grant returned one
+         */
+        Token fetch(Token previous) throws HttpClientException, IllegalVariableEvaluationException;
+    }
+
+    /**
+     * Cache key; secrets are only kept as a digest so that two tasks sharing a username but not its credentials never
+     * share a token.
+     */
+    record Key(String baseUri, String clientId, String username, String secretDigest) {
+        static Key of(String baseUri, String clientId, String username, String clientSecret, String password) {
+            try {
+                var digest = MessageDigest.getInstance("SHA-256");
+                digest.update(clientSecret.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(password.getBytes(StandardCharsets.UTF_8));
+                return new Key(baseUri, clientId, username, HexFormat.of().formatHex(digest.digest()));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    record Token(String accessToken, String refreshToken, Instant expiresAt) {
+        static Token of(String accessToken, String refreshToken, Long expiresIn) {
+            return new Token(accessToken, refreshToken, expiresIn == null ? null : Instant.now().plusSeconds(expiresIn));
+        }
+
+        boolean isFresh(Instant now) {
+            return expiresAt == null || now.isBefore(expiresAt.minus(REFRESH_MARGIN));
+        }
+
+        boolean isValid(Instant now) {
+            return expiresAt == null || now.isBefore(expiresAt);
+        }
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Token token;
+
+        String get(Fetcher fetcher) throws HttpClientException, IllegalVariableEvaluationException {
+            var current = this.token;
+            if (current != null && current.isFresh(Instant.now())) {
+                return current.accessToken();
+            }
+
+            // someone else is already refreshing a token that has not expired yet: no need to wait for it
+            if (current != null && current.isValid(Instant.now()) && !lock.tryLock()) {
+                return current.accessToken();
+            } else if (!lock.isHeldByCurrentThread()) {
+                lock.lock();
+            }
+
+            try {
+                current = this.token;
+                if (current != null && current.isFresh(Instant.now())) {
+                    return current.accessToken();
+                }
+
+                this.token = fetcher.fetch(current);
+                return this.token.accessToken();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidate(String accessToken) {
+            lock.lock();
+            try {
+                if (this.token != null && this.token.accessToken().equals(accessToken)) {
+                    this.token = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.kestra.plugin.servicenow;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Trigger a flow on new or changed ServiceNow records",
+    description = """
+        Polls a table for the records whose `sys_updated_on` moved past a watermark kept in the namespace KV store, \
+        and starts one execution per batch with the records stored as an ION file in internal storage.
+        Each poll is kept cheap: no total count is computed, only `fields` are returned, and the batch size starts at \
+        `minBatchSize` and only grows, up to `maxBatchSize`, while a backlog remains."""
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a flow for each batch of new or updated P1 incidents.",
+            full = true,
+            code = """
+                id: servicenow_p1_incidents
+                namespace: company.team
+
+                tasks:
+                  - id: each
+                    type: io.kestra.plugin.core.flow.ForEachItem
+                    items: "{{ trigger.uri }}"
+                    namespace: company.team
+                    flowId: handle_incident
+                    inputs:
+                      incident: "{{ taskrun.items }}"
+
+                triggers:
+                  - id: incidents
+                    type: io.kestra.plugin.servicenow.Trigger
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    query: "priority=1"
+                    fields:
+                      - number
+                      - short_description
+                      - assignment_group
+                    interval: PT30S
+                """
+        )
+    }
+)
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Trigger.Output>, ServiceNowConnectionInterface {
+    private Property<String> domain;
+
+    private Property<String> username;
+
+    private Property<String> password;
+
+    private Property<String> clientId;
+
+    private Property<String> clientSecret;
+
+    private Property<Map<CharSequence, CharSequence>> headers;
+
+    private HttpConfiguration options;
+
+    @Builder.Default
+    private Property<Integer> maxConnections = Property.ofValue(10);
+
+    @Builder.Default
+    private Property<Duration> keepAlive = Property.ofValue(Duration.ofSeconds(30));
+
+    @Builder.Default
+    private Property<Boolean> compression = Property.ofValue(false);
+
+    @Builder.Default
+    private Property<Boolean> requestCompression = Property.ofValue(false);
+
+    private Property<Double> rateLimit;
+
+    @Builder.Default
+    private Property<Duration> maxRateLimitWait = Property.ofValue(Duration.ofMinutes(10));
+
+    @Builder.Default
+    private Property<Integer> maxRetries = Property.ofValue(3);
+
+    @Builder.Default
+    private Property<Duration> retryDelay = Property.ofValue(Duration.ofMillis(500));
+
+    @NotNull
+    @Schema(
+        title = "ServiceNow table",
+        description = "API name of the table to watch (for example `incident`)."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> table;
+
+    @Schema(
+        title = "Encoded query filter",
+        description = "ServiceNow encoded query restricting the records to watch (for example `priority=1`). `^NQ` and `ORDERBY` are not supported."
+    )
+    private Property<String> query;
+
+    @Schema(
+        title = "Fields to return",
+        description = "Keep this list short to keep polls cheap; `sys_id` and `sys_updated_on` are always added. When absent, all fields are returned."
+    )
+    private Property<List<String>> fields;
+
+    @Schema(
+        title = "Initial batch size",
+        description = "Records requested by a poll when there is no backlog."
+    )
+    @Builder.Default
+    private Property<Integer> minBatchSize = Property.ofValue(50);
+
+    @Schema(
+        title = "Maximum batch size",
+        description = "Upper bound for the batch size, which doubles on each poll that returns a full batch."
+    )
+    @Builder.Default
+    private Property<Integer> maxBatchSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Watermark KV key",
+        description = "Key of the `sys_updated_on` watermark in the namespace KV store. Defaults to a key derived from the flow and trigger IDs."
+    )
+    private Property<String> watermarkKey;
+
+    @Builder.Default
+    private final Duration interval = Duration.ofSeconds(60);
+
+    @Getter(AccessLevel.NONE)
+    private transient String uri;
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        var runContext = conditionContext.getRunContext();
+        Logger logger = runContext.logger();
+
+        var rMinBatchSize = runContext.render(this.minBatchSize).as(Integer.class).orElse(50);
+        var rMaxBatchSize = runContext.render(this.maxBatchSize).as(Integer.class).orElse(1000);
+        var rWatermarkKey = runContext.render(this.watermarkKey).as(String.class)
+            .orElse("servicenow_" + context.getFlowId() + "_" + context.getTriggerId() + "_watermark");
+
+        // kept next to the watermark rather than on this instance, which is shared by the evaluations of the trigger
+        var store = runContext.namespaceKv(runContext.flowInfo().namespace());
+        var batchSizeKey = rWatermarkKey + "_batch_size";
+        var rBatchSize = store.getValue(batchSizeKey)
+            .map(KVValue::value)
+            .filter(Number.class::isInstance)
+            .map(value -> Math.max(rMinBatchSize, Math.min(((Number) value).intValue(), rMaxBatchSize)))
+            .orElse(rMinBatchSize);
+
+        var task = AbstractServiceNow.connection(this, Get.builder())
+            .id(this.id)
+            .type(Get.class.getName())
+            .uri(this.uri)
+            .table(this.table)
+            .query(this.query)
+            .fields(this.fields)
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .incremental(Property.ofValue(true))
+            .watermarkKey(Property.ofValue(rWatermarkKey))
+            .noCount(Property.ofValue(true))
+            .limit(Property.ofValue(rBatchSize))
+            .pageSize(Property.ofValue(rBatchSize))
+            .build();
+
+        Get.Output output;
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            output = task.read(runContext);
+        }
+
+        // a full batch means there is a backlog: read bigger batches until it is drained
+        var nextBatchSize = output.getSize() >= rBatchSize ? Math.min(rBatchSize * 2, rMaxBatchSize) : rMinBatchSize;
+        if (nextBatchSize != rBatchSize) {
+            store.put(batchSizeKey, new KVValueAndMetadata(new KVMetadata("ServiceNow trigger batch size", (Duration) null), nextBatchSize));
+        }
+
+        if (output.getSize() == 0) {
+            logger.debug("No new or changed records");
+            return Optional.empty();
+        }
+
+        logger.info("Found {} new or changed records, up to {}", output.getSize(), output.getWatermark());
+
+        var triggerOutput = Output.builder()
+            .uri(output.getUri())
+            .size(output.getSize())
+            .watermark(output.getWatermark())
+            .build();
+
+        var execution = TriggerService.generateExecution(this, conditionContext, context, triggerOutput);
+        // only moved past the batch once its execution exists, so that a failed evaluation reads the batch again
+        task.commitWatermark();
+
+        return Optional.of(execution);
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "Storage URI",
+            description = "ION file with the new or changed records."
+        )
+        private URI uri;
+
+        @Schema(title = "Number of records")
+        private Integer size;
+
+        @Schema(
+            title = "Watermark",
+            description = "Highest `sys_updated_on` of the records in this batch."
+        )
+        private String watermark;
+    }
+}
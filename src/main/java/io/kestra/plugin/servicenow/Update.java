@@ -1,13 +1,27 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.kestra.core.http.HttpRequest;
 import io.kestra.core.http.HttpResponse;
+import io.kestra.core.http.client.HttpClientResponseException;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -23,7 +37,11 @@ import io.kestra.core.models.annotations.PluginProperty;
 @Getter
 @NoArgsConstructor
 @Schema(
-    title = "Update a ServiceNow record by sys_id", description = "Issues a PUT to the table REST API to change fields on the specified record using Basic Auth or the OAuth password grant."
+    title = "Update ServiceNow records by sys_id or query",
+    description = """
+        Issues a PUT to the table REST API to change fields on the specified record using Basic Auth or the OAuth password grant.
+        With a `query` instead of a `sysId`, every matching record is patched: `sys_id`s are read with keyset paging and each record gets a PATCH, \
+        with up to `concurrency` requests in flight."""
 )
 @Plugin(
     examples = {
@@ -45,6 +63,26 @@ import io.kestra.core.models.annotations.PluginProperty;
                     data:
                       short_description: "Updated via Kestra"
                 """
+        ),
+        @Example(
+            title = "Reassign every open incident of a group.",
+            full = true,
+            code = """
+                id: servicenow_bulk_update
+                namespace: company.team
+
+                tasks:
+                  - id: reassign
+                    type: io.kestra.plugin.servicenow.Update
+                    domain: "{{ secret('SNOW_DOMAIN') }}"
+                    username: "{{ secret('SNOW_USERNAME') }}"
+                    password: "{{ secret('SNOW_PASSWORD') }}"
+                    table: incident
+                    query: "active=true^assignment_group=287ebd7da9fe198100f92cc8d1d2154e"
+                    data:
+                      assignment_group: "8a5055c9c61122780043563ef53438e3"
+                    concurrency: 16
+                """
         )
     }
 )
@@ -55,42 +93,224 @@ public class Update extends AbstractServiceNow implements RunnableTask<Update.Ou
     @PluginProperty(group = "main")
     private Property<String> table;
 
-    @NotNull
-    @Schema(title = "Record sys_id", description = "Unique identifier of the record to update.")
+    @Schema(title = "Record sys_id", description = "Unique identifier of the record to update. Either `sysId` or `query` must be set.")
     @PluginProperty(group = "main")
     private Property<String> sysId;
 
+    @Schema(
+        title = "Encoded query",
+        description = "ServiceNow encoded query selecting the records to patch, for example `active=true^priority=1`. `^NQ` and `ORDERBY` clauses are not supported. Either `sysId` or `query` must be set."
+    )
+    @PluginProperty(group = "main")
+    private Property<String> query;
+
     @NotNull
-    @Schema(title = "Fields to update", description = "Key/value map rendered to JSON and sent in the PUT body.")
+    @Schema(
+        title = "Fields to update",
+        description = "Key/value map rendered to JSON and sent in the PUT body, or in the PATCH body of each record matching `query`."
+    )
     @PluginProperty(group = "main")
     private Property<Map<String, Object>> data;
 
+    @Schema(
+        title = "Concurrent updates",
+        description = "Maximum number of PATCH requests in flight at once with `query`."
+    )
+    @Builder.Default
+    private Property<Integer> concurrency = Property.ofValue(4);
+
+    @Schema(
+        title = "Page size",
+        description = "Matching records read per request with `query`."
+    )
+    @Builder.Default
+    private Property<Integer> pageSize = Property.ofValue(1000);
+
+    @Schema(
+        title = "Dry run",
+        description = "With `query`, only counts the records that would be updated or skipped, without sending any PATCH."
+    )
+    @Builder.Default
+    private Property<Boolean> dryRun = Property.ofValue(false);
+
     @Override
     public Output run(RunContext runContext) throws Exception {
-        String table = runContext.render(this.table).as(String.class).orElseThrow();
-        String sysId = runContext.render(this.sysId).as(String.class).orElseThrow();
-
-        HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
-            .uri(URI.create(baseUri(runContext) + "api/now/table/" + table + "/" + sysId))
-            .method("PUT")
-            .body(
-                HttpRequest.JsonRequestBody.builder()
-                    .content(runContext.render(data).asMap(String.class, Object.class))
-                    .build()
-            );
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            String table = runContext.render(this.table).as(String.class).orElseThrow();
+            var rSysId = runContext.render(this.sysId).as(String.class);
+            var rQuery = runContext.render(this.query).as(String.class);
+
+            if (rSysId.isPresent() == rQuery.isPresent()) {
+                throw new IllegalArgumentException("Exactly one of `sysId` or `query` must be set");
+            }
+
+            if (rQuery.isPresent()) {
+                return this.bulk(runContext, table, rQuery.get());
+            }
+
+            HttpRequest.HttpRequestBuilder requestBuilder = HttpRequest.builder()
+                .uri(URI.create(baseUri(runContext) + "api/now/table/" + table + "/" + rSysId.get()))
+                .method("PUT")
+                .body(
+                    HttpRequest.JsonRequestBody.builder()
+                        .content(runContext.render(data).asMap(String.class, Object.class))
+                        .build()
+                );
+
+            HttpResponse<UpdateResult> response = this.request(runContext, requestBuilder, UpdateResult.class);
+
+            return Output.builder()
+                .result(response.getBody().getResult())
+                .build();
+        }
+    }
 
-        HttpResponse<UpdateResult> response = this.request(runContext, requestBuilder, UpdateResult.class);
+    /**
+     * Reads the matching records a page at a time, ordered by {@code sys_id} so that records which stop matching once
+     * patched never shift the following pages, then patches the page before reading the next one.
+     */
+    private Output bulk(RunContext runContext, String table, String rQuery) throws Exception {
+        if (rQuery.contains("^NQ") || rQuery.contains("ORDERBY")) {
+            throw new IllegalArgumentException("`query` does not support `^NQ` or `ORDERBY` clauses");
+        }
+
+        var start = Instant.now();
+        var rData = runContext.render(this.data).asMap(String.class, Object.class);
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(4);
+        var rPageSize = runContext.render(this.pageSize).as(Integer.class).orElse(1000);
+        var rDryRun = runContext.render(this.dryRun).as(Boolean.class).orElse(false);
+        var tableUri = baseUri(runContext) + "api/now/table/" + table;
+
+        // the patched fields are read along the sys_id to skip the records that already hold the new values
+        var fields = new ArrayList<>(rData.keySet());
+        var options = new Get.ReadOptions(true, true, Get.DisplayValue.FALSE, false);
+
+        var matched = new AtomicLong();
+        var updated = new AtomicLong();
+        var skipped = new AtomicLong();
+        var failed = new AtomicLong();
+        var tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+        try (var output = new BufferedWriter(new FileWriter(tempFile), FileSerde.BUFFER_SIZE)) {
+            List<String> last = null;
+
+            while (true) {
+                var page = new ArrayList<Map<String, Object>>(rPageSize);
+                var queryString = Get.queryString(Get.keysetQuery(rQuery, List.of("sys_id"), last), rPageSize, null, fields, List.of("sys_id"), options);
+                var response = this.stream(runContext, HttpRequest.builder().uri(URI.create(tableUri + "?" + queryString)).method("GET"), page::add);
+
+                if (page.isEmpty()) {
+                    break;
+                }
+                matched.addAndGet(page.size());
+
+                var pending = page.stream()
+                    .filter(record -> {
+                        if (isUpToDate(record, rData)) {
+                            skipped.incrementAndGet();
+                            return false;
+                        }
+                        return true;
+                    })
+                    .map(record -> record.get("sys_id").toString())
+                    .toList();
+
+                if (!rDryRun && !pending.isEmpty()) {
+                    Flux<Map<String, Object>> failures = Flux.fromIterable(pending)
+                        .flatMap(
+                            id -> Mono.fromCallable(() -> this.patch(runContext, tableUri, id, rData, updated))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                            rConcurrency
+                        )
+                        .doOnNext(row -> failed.incrementAndGet());
+
+                    FileSerde.writeAll(output, failures).block();
+                }
+
+                if (page.size() < rPageSize && Get.nextLink(response.getHeaders()).isEmpty()) {
+                    break;
+                }
+                last = Get.keyValues(page.getLast(), List.of("sys_id"));
+            }
+        }
+
+        var duration = Duration.between(start, Instant.now());
+        runContext.logger().info(
+            "Update {} {} of {} matching records of '{}' ({} skipped, {} failed) in {}",
+            rDryRun ? "would patch" : "patched", rDryRun ? matched.get() - skipped.get() : updated.get(), matched.get(), table, skipped.get(), failed.get(), duration
+        );
 
         return Output.builder()
-            .result(response.getBody().getResult())
+            .uri(runContext.storage().putFile(tempFile))
+            .matched(matched.get())
+            .updated(updated.get())
+            .skipped(skipped.get())
+            .failed(failed.get())
+            .duration(duration)
             .build();
     }
 
+    /**
+     * @return null once patched, otherwise the failure row
+     */
+    private Map<String, Object> patch(RunContext runContext, String tableUri, String sysId, Map<String, Object> data, AtomicLong updated) throws Exception {
+        try {
+            // only the sys_id is kept from each response, no need to have ServiceNow serialize the whole record
+            this.request(
+                runContext,
+                HttpRequest.builder()
+                    .uri(URI.create(tableUri + "/" + sysId + "?sysparm_fields=sys_id"))
+                    .method("PATCH")
+                    .body(HttpRequest.JsonRequestBody.builder().content(data).build()),
+                UpdateResult.class
+            );
+            updated.incrementAndGet();
+            return null;
+        } catch (HttpClientResponseException e) {
+            var row = new LinkedHashMap<String, Object>();
+            row.put("sysId", sysId);
+            row.put("error", e.getMessage());
+            return row;
+        }
+    }
+
+    static boolean isUpToDate(Map<String, Object> record, Map<String, Object> data) {
+        return data.entrySet().stream().allMatch(entry -> {
+            var current = record.get(entry.getKey());
+            // reference fields are returned as their sys_id with reference links excluded
+            if (current instanceof Map<?, ?> reference) {
+                current = reference.get("value");
+            }
+            return current != null && entry.getValue() != null && Objects.equals(current.toString(), entry.getValue().toString());
+        });
+    }
+
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
-        @Schema(title = "The updated record returned by ServiceNow")
+        @Schema(title = "The updated record returned by ServiceNow", description = "Null with `query`.")
         private Map<String, Object> result;
+
+        @Schema(
+            title = "Failures URI",
+            description = "ION file with one row per record that failed to update: its `sysId` and the `error`. Set only with `query`."
+        )
+        private URI uri;
+
+        @Schema(title = "Records matching the query", description = "Set only with `query`.")
+        private Long matched;
+
+        @Schema(title = "Records updated", description = "Set only with `query`; zero on a dry run.")
+        private Long updated;
+
+        @Schema(title = "Records skipped", description = "Records that already held every value of `data`, so were not sent. Set only with `query`.")
+        private Long skipped;
+
+        @Schema(title = "Records that failed to update", description = "Set only with `query`.")
+        private Long failed;
+
+        @Schema(title = "Wall time", description = "Set only with `query`.")
+        private Duration duration;
     }
 
     @Data
@@ -0,0 +1,172 @@
+package io.kestra.plugin.servicenow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVStore;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+/**
+ * High-water mark on {@code sys_updated_on}, persisted in the namespace KV store, used to only read the records that
+ * changed since the previous run.
+ * <p>
+ * ServiceNow timestamps have a one-second resolution, so the watermark is applied inclusively to not lose records
+ * updated within the same second as the last one read, and the {@code sys_id}s already read at that exact second are
+ * kept alongside it to skip them on the next run. Beyond {@link #MAX_IDS} records sharing that second, only the last
+ * {@code sys_id} read is kept instead, and the next run seeks past the ({@code sys_updated_on}, {@code sys_id}) key: the
+ * stored state stays bounded, at the cost of missing a record updated later within that same second with a lower
+ * {@code sys_id}.
+ * <p>
+ * The watermark read at load time is never changed by reading records: the highest value seen is only persisted by
+ * {@link #commit()}, once the caller has safely stored what it read.
+ */
+final class Watermark {
+    static final String FIELD = "sys_updated_on";
+    static final List<String> KEYSET = List.of(FIELD, "sys_id");
+    static final int MAX_IDS = 1000;
+
+    private final KVStore store;
+    private final String key;
+    private final String from;
+    private final Set<String> fromIds;
+    private final String fromAfter;
+    private String latest;
+    private Set<String> latestIds = new HashSet<>();
+    private String latestAfter;
+    private boolean overflow;
+
+    private Watermark(KVStore store, String key, String from, Set<String> fromIds, String fromAfter) {
+        this.store = store;
+        this.key = key;
+        this.from = from;
+        this.fromIds = fromIds;
+        this.fromAfter = fromAfter;
+    }
+
+    static Watermark load(RunContext runContext, String key) throws Exception {
+        var store = runContext.namespaceKv(runContext.flowInfo().namespace());
+        var stored = store.getValue(key).map(KVValue::value).orElse(null);
+
+        if (stored instanceof Map<?, ?> map) {
+            var ids = map.get("ids") instanceof Collection<?> collection
+                ? collection.stream().map(Object::toString).collect(Collectors.toSet())
+                : Set.<String>of();
+            var after = map.get("after") != null ? map.get("after").toString() : null;
+            return new Watermark(store, key, (String) map.get("value"), ids, after);
+        }
+
+        return new Watermark(store, key, stored != null ? stored.toString() : null, Set.of(), null);
+    }
+
+    /**
+     * Default KV key for a table and query, so that distinct filters on the same table keep distinct watermarks.
+     */
+    static String defaultKey(String table, String query) throws Exception {
+        var digest = MessageDigest.getInstance("SHA-256").digest((query == null ? "" : query).getBytes(StandardCharsets.UTF_8));
+        return "servicenow_" + table + "_" + HexFormat.of().formatHex(digest, 0, 8) + "_watermark";
+    }
+
+    String from() {
+        return from;
+    }
+
+    synchronized String latest() {
+        return latest != null ? latest : from;
+    }
+
+    /**
+     * Adds the "changed since the watermark" condition to an encoded query, unless the read starts after {@link #start()}.
+     */
+    String apply(String query) {
+        if (from == null || fromAfter != null) {
+            return query;
+        }
+
+        var condition = FIELD + ">=" + from;
+        return query == null || query.isEmpty() ? condition : query + "^" + condition;
+    }
+
+    /**
+     * @return the {@link #KEYSET} key to read after, when the previous run read too many records at its last second to
+     * keep their ids, otherwise null
+     */
+    List<String> start() {
+        return from != null && fromAfter != null ? List.of(from, fromAfter) : null;
+    }
+
+    /**
+     * @return false for a record already read by the previous run, at the exact second of the watermark
+     */
+    boolean isNew(Map<String, Object> record) {
+        return fromIds.isEmpty() || !Objects.equals(from, value(record, FIELD)) || !fromIds.contains(value(record, "sys_id"));
+    }
+
+    /**
+     * Records are read ordered by {@link #KEYSET}, so the last one seen carries the highest value.
+     */
+    synchronized void observe(Map<String, Object> record) {
+        var value = value(record, FIELD);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        if (!value.equals(latest)) {
+            latest = value;
+            latestIds = new HashSet<>();
+            latestAfter = null;
+            overflow = false;
+            // records of the previous run at the same second must still be skipped by the next one
+            if (value.equals(from)) {
+                latestIds.addAll(fromIds);
+                // that run seeked past its last key: the records before it are not in fromIds
+                overflow = fromAfter != null;
+            }
+        }
+
+        var sysId = value(record, "sys_id");
+        if (sysId == null) {
+            return;
+        }
+        // read in KEYSET order, so the last one at this second has the highest sys_id
+        latestAfter = sysId;
+        if (!overflow) {
+            latestIds.add(sysId);
+            if (latestIds.size() > MAX_IDS) {
+                overflow = true;
+                latestIds = new HashSet<>();
+            }
+        }
+    }
+
+    synchronized void commit() throws Exception {
+        if (latest != null) {
+            store.put(key, new KVValueAndMetadata(
+                new KVMetadata("ServiceNow watermark on " + FIELD, (Duration) null),
+                overflow && latestAfter != null
+                    ? Map.of("value", latest, "after", latestAfter)
+                    : Map.of("value", latest, "ids", List.copyOf(latestIds))
+            ));
+        }
+    }
+
+    private static String value(Map<String, Object> record, String field) {
+        var value = record.get(field);
+        // reference and display values come back as {value, display_value}
+        if (value instanceof Map<?, ?> map) {
+            value = map.get("value");
+        }
+        return value != null ? value.toString() : null;
+    }
+}
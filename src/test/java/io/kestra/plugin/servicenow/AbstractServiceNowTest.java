@@ -0,0 +1,119 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.http.client.HttpClientResponseException;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+@WireMockTest(httpPort = 8089)
+class AbstractServiceNowTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void readResultArray() throws Exception {
+        var records = read("""
+            {"result": [{"sys_id": "1", "number": "INC1"}, {"sys_id": "2", "number": "INC2"}]}
+            """);
+
+        assertThat(records.size(), is(2));
+        assertThat(records.get(1).get("number"), is("INC2"));
+    }
+
+    @Test
+    void readResultSingleObject() throws Exception {
+        // a record or an attachment read by sys_id
+        var records = read("""
+            {"result": {"sys_id": "a1", "file_name": "logs.txt", "nested": {"value": "x", "link": "y"}}}
+            """);
+
+        assertThat(records.size(), is(1));
+        assertThat(records.getFirst().get("file_name"), is("logs.txt"));
+        assertThat(records.getFirst().get("nested"), is(Map.of("value", "x", "link", "y")));
+    }
+
+    @Test
+    void readResultSkipsOtherKeys() throws Exception {
+        var records = read("""
+            {
+              "import_set": "ISET001",
+              "meta": {"count": 2, "links": [{"rel": "next"}], "empty": []},
+              "result": [{"sys_id": "1"}, {"sys_id": "2"}],
+              "staging_table": "u_import",
+              "trailer": [[1, 2], {"result": [{"sys_id": "nested"}]}]
+            }
+            """);
+
+        assertThat(records.stream().map(record -> record.get("sys_id")).toList(), is(List.of("1", "2")));
+    }
+
+    @Test
+    void readResultEmpty() throws Exception {
+        assertThat(read("{\"result\": []}").size(), is(0));
+        assertThat(read("{\"result\": null}").size(), is(0));
+        assertThat(read("{}").size(), is(0));
+        assertThat(read("").size(), is(0));
+    }
+
+    @Test
+    void readResultErrorBody() throws Exception {
+        // the error object of a failed call is not a result
+        assertThat(read("""
+            {"error": {"message": "No Record found", "detail": "Record doesn't exist"}, "status": "failure"}
+            """).size(), is(0));
+    }
+
+    @Test
+    void streamErrorResponse(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .willReturn(aResponse()
+                .withStatus(403)
+                .withHeader("Content-Type", "application/json")
+                .withBody("""
+                    {"error": {"message": "User Not Authorized", "detail": "ACL restricts the record retrieval"}, "status": "failure"}
+                    """)));
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var exception = assertThrows(HttpClientResponseException.class, () -> task.run(runContextFactory.of(Map.of())));
+
+        assertThat(exception.getResponse().getStatus().getCode(), is(403));
+        assertThat(exception.getMessage(), containsString("403"));
+        // a 403 is not transient, so it is sent once
+        verify(1, getRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident")));
+    }
+
+    private static List<Map<String, Object>> read(String body) throws Exception {
+        var records = new ArrayList<Map<String, Object>>();
+        var count = AbstractServiceNow.readResult(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), records::add);
+        assertThat(count, is((long) records.size()));
+        return records;
+    }
+}
@@ -0,0 +1,138 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+@WireMockTest(httpPort = 8086)
+class AggregateTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void runGroupBy(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/stats/incident"))
+            .withQueryParam("sysparm_query", equalTo("active=true"))
+            .withQueryParam("sysparm_count", equalTo("true"))
+            .withQueryParam("sysparm_group_by", equalTo("priority"))
+            .withQueryParam("sysparm_max_fields", equalTo("reassignment_count"))
+            .willReturn(okJson("""
+                {
+                  "result": [
+                    {"stats": {"count": "3", "max": {"reassignment_count": "2"}}, "groupby_fields": [{"field": "priority", "value": "1"}]},
+                    {"stats": {"count": "12", "max": {"reassignment_count": "5"}}, "groupby_fields": [{"field": "priority", "value": "3"}]}
+                  ]
+                }
+                """)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Aggregate.builder()
+            .table(Property.ofValue("incident"))
+            .query(Property.ofValue("active=true"))
+            .groupBy(Property.ofValue(List.of("priority")))
+            .maxFields(Property.ofValue(List.of("reassignment_count")))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getSize(), is(2));
+        assertThat(output.getResults().getFirst().get("priority"), is("1"));
+        assertThat(((Map<?, ?>) output.getResults().get(1).get("stats")).get("count"), is("12"));
+        assertThat(output.getUri(), nullValue());
+    }
+
+    @Test
+    void runStore(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/stats/incident"))
+            .willReturn(okJson("""
+                {
+                  "result": [
+                    {"stats": {"count": "3"}, "groupby_fields": [{"field": "priority", "value": "1"}]},
+                    {"stats": {"count": "12"}, "groupby_fields": [{"field": "priority", "value": "3"}]}
+                  ]
+                }
+                """)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+        var task = Aggregate.builder()
+            .table(Property.ofValue("incident"))
+            .groupBy(Property.ofValue(List.of("priority")))
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getSize(), is(2));
+        assertThat(output.getUri(), notNullValue());
+        assertThat(output.getResults(), nullValue());
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+            var rows = FileSerde.readAll(reader).collectList().block();
+            assertThat(rows.size(), is(2));
+            assertThat(((Map<?, ?>) rows.get(1)).get("priority"), is("3"));
+        }
+    }
+
+    @Test
+    void runFetchOne(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/stats/incident"))
+            .willReturn(okJson("""
+                {
+                  "result": [
+                    {"stats": {"count": "3"}, "groupby_fields": [{"field": "priority", "value": "1"}]},
+                    {"stats": {"count": "12"}, "groupby_fields": [{"field": "priority", "value": "3"}]}
+                  ]
+                }
+                """)));
+
+        var task = Aggregate.builder()
+            .table(Property.ofValue("incident"))
+            .groupBy(Property.ofValue(List.of("priority")))
+            .fetchType(Property.ofValue(FetchType.FETCH_ONE))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getSize(), is(1));
+        assertThat(output.getResults().getFirst().get("priority"), is("1"));
+        assertThat(output.getUri(), nullValue());
+    }
+}
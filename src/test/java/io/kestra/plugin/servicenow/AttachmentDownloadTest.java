@@ -0,0 +1,92 @@
+package io.kestra.plugin.servicenow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+@WireMockTest(httpPort = 8087)
+class AttachmentDownloadTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void runSysId(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/attachment/a1"))
+            .willReturn(okJson("""
+                {"result": {"sys_id": "a1", "file_name": "logs.txt", "content_type": "text/plain", "size_bytes": "11", "table_name": "incident", "table_sys_id": "i1"}}
+                """)));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/attachment/a1/file"))
+            .willReturn(aResponse().withStatus(200).withHeader("Content-Type", "text/plain").withBody("hello world")));
+
+        var runContext = runContextFactory.of(Map.of());
+        var output = task(wireMockRuntimeInfo)
+            .sysId(Property.ofValue("a1"))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getSize(), is(1));
+        assertThat(output.getBytes(), is(11L));
+        assertThat(output.getUri(), notNullValue());
+        assertThat(output.getFiles().getFirst().get("fileName"), is("logs.txt"));
+        assertThat(output.getFiles().getFirst().get("tableName"), is("incident"));
+        try (var input = runContext.storage().getFile(output.getUri())) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8), is("hello world"));
+        }
+    }
+
+    @Test
+    void runQuery(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/attachment"))
+            .withQueryParam("sysparm_query", equalTo("table_sys_id=i1^ORDERBYsys_id"))
+            .willReturn(okJson("""
+                {"result": [
+                  {"sys_id": "a1", "file_name": "one.bin", "content_type": "application/octet-stream", "table_name": "incident", "table_sys_id": "i1"},
+                  {"sys_id": "a2", "file_name": "two.bin", "content_type": "application/octet-stream", "table_name": "incident", "table_sys_id": "i1"},
+                  {"sys_id": "a3", "file_name": "three.bin", "content_type": "application/octet-stream", "table_name": "incident", "table_sys_id": "i1"}
+                ]}
+                """)));
+        for (var sysId : new String[] {"a1", "a2", "a3"}) {
+            stubFor(get(urlPathEqualTo("/service-now.com/api/now/attachment/" + sysId + "/file"))
+                .willReturn(aResponse().withStatus(200).withBody(new byte[1024]).withFixedDelay(50)));
+        }
+
+        var runContext = runContextFactory.of(Map.of());
+        var output = task(wireMockRuntimeInfo)
+            .query(Property.ofValue("table_sys_id=i1"))
+            .concurrency(Property.ofValue(3))
+            .build()
+            .run(runContext);
+
+        assertThat(output.getSize(), is(3));
+        assertThat(output.getBytes(), is(3072L));
+        // downloads complete out of order but are reported in listing order
+        assertThat(output.getFiles().get(1).get("sysId"), is("a2"));
+        assertThat(output.getFiles().get(2).get("size"), is(1024L));
+        assertThat(output.getBytesPerSecond() > 0, is(true));
+    }
+
+    private static AttachmentDownload.AttachmentDownloadBuilder<?, ?> task(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        return AttachmentDownload.builder()
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/");
+    }
+}
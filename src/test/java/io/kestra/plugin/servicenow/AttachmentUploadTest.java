@@ -0,0 +1,98 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+@WireMockTest(httpPort = 8088)
+class AttachmentUploadTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/attachment/file"))
+            .withQueryParam("table_name", equalTo("incident"))
+            .withQueryParam("table_sys_id", equalTo("i1"))
+            .withQueryParam("file_name", equalTo("report.csv"))
+            .withHeader("Content-Type", containing("text/csv"))
+            .withRequestBody(equalTo("id,name\n1,kestra\n"))
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("""
+                {"result": {"sys_id": "a1", "file_name": "report.csv", "size_bytes": "17"}}
+                """)));
+
+        var runContext = runContextFactory.of(Map.of());
+        File file = runContext.workingDir().createTempFile(".csv").toFile();
+        Files.writeString(file.toPath(), "id,name\n1,kestra\n");
+
+        var output = AttachmentUpload.builder()
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .tableName(Property.ofValue("incident"))
+            .tableSysId(Property.ofValue("i1"))
+            .fileName(Property.ofValue("report.csv"))
+            .contentType(Property.ofValue("text/csv"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build()
+            .run(runContext);
+
+        assertThat(output.getSysId(), is("a1"));
+        assertThat(output.getBytes(), is(17L));
+        assertThat(output.getResult().get("file_name"), is("report.csv"));
+    }
+
+    @Test
+    void runAgainAfterRateLimit(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/attachment/file";
+        stubFor(post(urlPathEqualTo(path)).inScenario("throttled").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "0"))
+            .willSetStateTo("accepted"));
+        stubFor(post(urlPathEqualTo(path)).inScenario("throttled").whenScenarioStateIs("accepted")
+            .willReturn(aResponse().withStatus(201).withHeader("Content-Type", "application/json").withBody("""
+                {"result": {"sys_id": "a2", "file_name": "report.csv", "size_bytes": "17"}}
+                """)));
+
+        var runContext = runContextFactory.of(Map.of());
+        File file = runContext.workingDir().createTempFile(".csv").toFile();
+        Files.writeString(file.toPath(), "id,name\n1,kestra\n");
+
+        var output = AttachmentUpload.builder()
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .tableName(Property.ofValue("incident"))
+            .tableSysId(Property.ofValue("i1"))
+            .fileName(Property.ofValue("report.csv"))
+            .contentType(Property.ofValue("text/csv"))
+            // a user of its own, so that the slowed down rate limiter is not shared with the other tests
+            .username(Property.ofValue("throttled_upload"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build()
+            .run(runContext);
+
+        // both attempts carry the whole file, not what was left of a stream already read
+        verify(2, postRequestedFor(urlPathEqualTo(path)).withRequestBody(equalTo("id,name\n1,kestra\n")));
+        assertThat(output.getSysId(), is("a2"));
+        assertThat(output.getBytes(), is(17L));
+    }
+}
@@ -0,0 +1,121 @@
+package io.kestra.plugin.servicenow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+@WireMockTest(httpPort = 8083)
+class BatchTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var created = Base64.getEncoder().encodeToString("{\"result\":{\"sys_id\":\"abc\"}}".getBytes(StandardCharsets.UTF_8));
+        var notFound = Base64.getEncoder().encodeToString("{\"error\":{\"message\":\"No Record found\"}}".getBytes(StandardCharsets.UTF_8));
+
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/v1/batch")).willReturn(okJson("""
+            {
+              "batch_request_id": "1",
+              "serviced_requests": [
+                {"id": "0", "body": "%s", "status_code": 201, "status_text": "Created", "headers": [], "execution_time": 12},
+                {"id": "1", "body": "%s", "status_code": 404, "status_text": "Not Found", "headers": [], "execution_time": 3}
+              ],
+              "unserviced_requests": []
+            }
+            """.formatted(created, notFound))));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Batch.builder()
+            .operations(Property.ofValue(List.of(
+                Batch.Operation.builder().method("POST").table("incident").data(Map.of("short_description", "created")).build(),
+                Batch.Operation.builder().method("DELETE").table("incident").sysId("missing").build()
+            )))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getTotal(), is(2L));
+        assertThat(output.getSucceeded(), is(1L));
+        assertThat(output.getFailed(), is(1L));
+        assertThat(output.getUri() != null, is(true));
+        verify(1, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/v1/batch"))
+            .withRequestBody(matchingJsonPath("$.rest_requests[1].url", equalTo("/api/now/table/incident/missing"))));
+    }
+
+    @Test
+    void runWithUnreadableSubResponse(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var html = Base64.getEncoder().encodeToString("<html><body>Internal error</body></html>".getBytes(StandardCharsets.UTF_8));
+        var updated = Base64.getEncoder().encodeToString("{\"result\":{\"sys_id\":\"a/b\"}}".getBytes(StandardCharsets.UTF_8));
+
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/v1/batch")).willReturn(okJson("""
+            {
+              "batch_request_id": "1",
+              "serviced_requests": [
+                {"id": "0", "body": "%s", "status_code": 500, "status_text": "Internal Server Error", "headers": [], "execution_time": 12},
+                {"id": "1", "body": "%s", "status_code": 200, "status_text": "OK", "headers": [], "execution_time": 3}
+              ],
+              "unserviced_requests": []
+            }
+            """.formatted(html, updated))));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Batch.builder()
+            .operations(Property.ofValue(List.of(
+                Batch.Operation.builder().method("DELETE").table("incident").sysId("abc").build(),
+                Batch.Operation.builder().method("PATCH").table("u_custom table").sysId("a/b?c").data(Map.of("state", "2")).build()
+            )))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getSucceeded(), is(1L));
+        assertThat(output.getFailed(), is(1L));
+        verify(1, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/v1/batch"))
+            .withRequestBody(matchingJsonPath("$.rest_requests[1].url", equalTo("/api/now/table/u_custom%20table/a%2Fb%3Fc"))));
+    }
+
+    @Test
+    void rejectInvalidSizes() {
+        var task = Batch.builder()
+            .operations(Property.ofValue(List.of(Batch.Operation.builder().method("DELETE").table("incident").sysId("abc").build())))
+            .batchSize(Property.ofValue(0))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of(Map.of())));
+    }
+}
@@ -1,5 +1,10 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -11,12 +16,16 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
 
 import jakarta.inject.Inject;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @KestraTest
 @WireMockTest(httpPort = 8082)
@@ -53,4 +62,117 @@ public class DeleteTest {
 
         assertThat(output.isDeleted(), is(true));
     }
+
+    @Test
+    void bulkNotFoundAfterRetry(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var table = "/service-now.com/api/now/table/u_retried";
+        stubFor(delete(urlEqualTo(table + "/first%20id")).willReturn(aResponse().withStatus(204)));
+        // the first attempt went through but its response was lost: the retry finds nothing left to delete
+        stubFor(delete(urlEqualTo(table + "/second")).inScenario("retried").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503)).willSetStateTo("deleted"));
+        stubFor(delete(urlEqualTo(table + "/second")).inScenario("retried").whenScenarioStateIs("deleted")
+            .willReturn(aResponse().withStatus(404).withBody("{\"error\":{\"message\":\"No Record found\"}}")));
+        stubFor(delete(urlEqualTo(table + "/third")).willReturn(aResponse().withStatus(403)));
+
+        var runContext = runContextFactory.of(Map.of());
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file), FileSerde.BUFFER_SIZE)) {
+            FileSerde.writeAll(output, Flux.just("first id", "second", "third")).block();
+        }
+
+        var task = Delete.builder()
+            .table(Property.ofValue("u_retried"))
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .retryDelay(Property.ofValue(Duration.ofMillis(10)))
+            .username(Property.ofValue("retried_delete"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getDeletedRecords(), is(1L));
+        assertThat(output.getNotFoundRecords(), is(1L));
+        assertThat(output.getFailedRecords(), is(1L));
+        assertThat(output.isDeleted(), is(false));
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+            var outcomes = FileSerde.readAll(reader).collectList().block();
+            assertThat(((Map<?, ?>) outcomes.get(1)).get("notFound"), is(true));
+            assertThat(((Map<?, ?>) outcomes.get(2)).containsKey("error"), is(true));
+        }
+    }
+
+    @Test
+    void bulkQueryAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator().table("u_incident_import", 500)) {
+            var task = Delete.builder()
+                .table(Property.ofValue("u_incident_import"))
+                .query(Property.ofValue("category=network"))
+                .pageSize(Property.ofValue(40))
+                .concurrency(Property.ofValue(8))
+                .maxRecords(Property.ofValue(250L))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = task.run(runContextFactory.of(Map.of()));
+
+            assertThat(output.isDeleted(), is(true));
+            assertThat(output.getDeletedRecords(), is(250L));
+            assertThat(output.getFailedRecords(), is(0L));
+            assertThat(output.getDeletionsPerSecond() > 0, is(true));
+            assertThat(emulator.deleted("u_incident_import"), is(250L));
+        }
+    }
+
+    @Test
+    void bulkFromFileAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator().table("u_incident_import", 100)) {
+            var runContext = runContextFactory.of(Map.of());
+            var file = runContext.workingDir().createTempFile(".ion").toFile();
+            try (var output = new BufferedWriter(new FileWriter(file), FileSerde.BUFFER_SIZE)) {
+                FileSerde.writeAll(output, Flux.range(0, 30).map(i -> (Object) TableApiEmulator.generate(i).get("sys_id"))).block();
+            }
+
+            var task = Delete.builder()
+                .table(Property.ofValue("u_incident_import"))
+                .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = task.run(runContext);
+
+            assertThat(output.getDeletedRecords(), is(30L));
+            assertThat(emulator.deleted("u_incident_import"), is(30L));
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+                var outcomes = FileSerde.readAll(reader).collectList().block();
+                assertThat(outcomes.size(), is(30));
+                assertThat(((Map<?, ?>) outcomes.getFirst()).get("sysId"), is(TableApiEmulator.generate(0).get("sys_id")));
+            }
+        }
+    }
+
+    @Test
+    void bulkAboveMaxRecords() throws Exception {
+        try (var emulator = new TableApiEmulator().table("u_incident_import", 100)) {
+            var task = Delete.builder()
+                .table(Property.ofValue("u_incident_import"))
+                .query(Property.ofValue("active=true"))
+                .maxRecords(Property.ofValue(10L))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            assertThrows(IllegalStateException.class, () -> task.run(runContextFactory.of(Map.of())));
+            assertThat(emulator.deleted("u_incident_import"), is(0L));
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class ExportTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void runAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator()
+            .table("incident", 1_200)
+            .table("problem", 300)
+            .table("change_request", 50)
+            .latency(Duration.ofMillis(20))) {
+            var runContext = runContextFactory.of(Map.of());
+            var task = Export.builder()
+                .id("export")
+                .tables(Property.ofValue(List.of(
+                    Export.TableSpec.builder().table("incident").build(),
+                    Export.TableSpec.builder().table("problem").fields(List.of("number")).build(),
+                    Export.TableSpec.builder().table("change_request").name("changes").build()
+                )))
+                .concurrency(Property.ofValue(3))
+                .pageSize(Property.ofValue(250))
+                .lean(Property.ofValue(true))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = task.run(runContext);
+
+            assertThat(output.getSize(), is(1_550L));
+            assertThat(output.getTables().stream().map(Export.TableOutput::getName).toList(), is(List.of("incident", "problem", "changes")));
+            assertThat(output.getTables().getFirst().getSize(), is(1_200L));
+            assertThat(output.getUris().keySet(), is(Set.of("incident", "problem", "changes")));
+
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUris().get("problem"))))) {
+                var records = FileSerde.readAll(reader).collectList().block();
+                assertThat(records.size(), is(300));
+            }
+        }
+    }
+
+    @Test
+    void runWithDuplicateNames() {
+        var task = Export.builder()
+            .tables(Property.ofValue(List.of(
+                Export.TableSpec.builder().table("incident").build(),
+                Export.TableSpec.builder().table("incident").query("active=true").build()
+            )))
+            .username(Property.ofValue("emulated"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of(Map.of())));
+    }
+}
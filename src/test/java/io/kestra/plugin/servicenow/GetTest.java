@@ -1,8 +1,23 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.io.LocalInputFile;
 import org.junit.jupiter.api.Test;
 
 import io.kestra.core.models.tasks.common.FetchType;
@@ -14,10 +29,13 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
 
 import jakarta.inject.Inject;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
@@ -56,6 +74,8 @@ class GetTest {
         assertThat(output.getSize(), is(1));
         assertThat(output.getResults().getFirst().size(), is(65));
         assertThat(output.getResults().getFirst().get("number"), is("PRB0000050"));
+        assertThat(runContext.metrics().stream().anyMatch(metric -> metric.getName().equals("http.request.duration")), is(true));
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("records")).findFirst().orElseThrow().getValue(), is(1.0));
     }
 
     @Test
@@ -159,6 +179,481 @@ class GetTest {
         assertThat(output.getSize(), is(1));
     }
 
+    @Test
+    void runWithStoreCsv(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(any(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fields(Property.ofValue(List.of("number", "opened_by", "short_description")))
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .format(Property.ofValue(Get.Format.CSV))
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getUri().getPath().endsWith(".csv"), is(true));
+        assertThat(output.getSize(), is(1));
+        try (var input = runContext.storage().getFile(output.getUri())) {
+            var lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).split("\r\n");
+            assertThat(lines[0], is("number,opened_by,short_description"));
+            assertThat(lines[1].startsWith("PRB0000050,glide.maint,"), is(true));
+        }
+    }
+
+    @Test
+    void runWithStoreAvro(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(any(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .format(Property.ofValue(Get.Format.AVRO))
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getSize(), is(1));
+        var file = runContext.workingDir().createTempFile(".avro").toFile();
+        try (var input = runContext.storage().getFile(output.getUri())) {
+            Files.copy(input, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (var reader = new DataFileReader<GenericRecord>(file, new GenericDatumReader<>())) {
+            var record = reader.next();
+            assertThat(record.get("number").toString(), is("PRB0000050"));
+            assertThat(record.get("opened_by").toString(), is("glide.maint"));
+            assertThat(reader.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    void runWithStoreParquetEmpty(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(any(urlPathEqualTo("/service-now.com/api/now/table/change_request")).willReturn(okJson("{\"result\":[]}")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("change_request"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .format(Property.ofValue(Get.Format.PARQUET))
+            .build();
+
+        var output = task.run(runContext);
+
+        // no records and no fields still give a readable file, with no rows
+        assertThat(output.getSize(), is(0));
+        var file = runContext.workingDir().createTempFile(".parquet").toFile();
+        try (var input = runContext.storage().getFile(output.getUri())) {
+            Files.copy(input, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (var reader = AvroParquetReader.<GenericRecord>builder(new LocalInputFile(file.toPath())).withConf(new PlainParquetConfiguration()).build()) {
+            assertThat(reader.read() == null, is(true));
+        }
+    }
+
+    @Test
+    void runTyped(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/sys_db_object")).withQueryParam("sysparm_query", equalTo("name=incident"))
+            .willReturn(okJson("{\"result\":[{\"super_class.name\":\"task\"}]}")));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/sys_db_object")).withQueryParam("sysparm_query", equalTo("name=task"))
+            .willReturn(okJson("{\"result\":[{\"super_class.name\":\"\"}]}")));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/sys_dictionary")).withQueryParam("sysparm_query", equalTo("nameINincident,task^elementISNOTEMPTY"))
+            .willReturn(okJson("""
+                {"result": [
+                  {"name": "incident", "element": "impact", "internal_type": "integer"},
+                  {"name": "task", "element": "impact", "internal_type": "string"},
+                  {"name": "task", "element": "active", "internal_type": "boolean"},
+                  {"name": "task", "element": "number", "internal_type": "string"},
+                  {"name": "task", "element": "sys_updated_on", "internal_type": "glide_date_time"},
+                  {"name": "task", "element": "closed_at", "internal_type": "glide_date_time"}
+                ]}
+                """)));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .typed(Property.ofValue(true))
+            .build();
+
+        var output = task.run(runContext);
+        var record = output.getResults().getFirst();
+
+        assertThat(record.get("number"), is("PRB0000050"));
+        assertThat(record.get("impact"), is(3L));
+        assertThat(record.get("active"), is(false));
+        assertThat(record.get("sys_updated_on"), is(Instant.parse("2016-01-19T04:52:04Z")));
+        assertThat(record.get("opened_by") instanceof Map, is(true));
+
+        task.run(runContext);
+        verify(1, getRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/sys_dictionary")));
+    }
+
+    @Test
+    void runTypedAvroWithInvalidValue(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/sys_db_object"))
+            .willReturn(okJson("{\"result\":[{\"super_class.name\":\"\"}]}")));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/sys_dictionary")).withQueryParam("sysparm_query", equalTo("nameINproblem^elementISNOTEMPTY"))
+            .willReturn(okJson("""
+                {"result": [
+                  {"name": "problem", "element": "number", "internal_type": "integer"},
+                  {"name": "problem", "element": "impact", "internal_type": "integer"}
+                ]}
+                """)));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/problem")).willReturn(okJson(DATA)));
+
+        // another table than runTyped, whose schema stays cached on the worker
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("problem"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .format(Property.ofValue(Get.Format.AVRO))
+            .typed(Property.ofValue(true))
+            .build();
+
+        var output = task.run(runContext);
+
+        // `number` does not parse as an integer: the value is dropped, not the record
+        assertThat(output.getSize(), is(1));
+        var file = runContext.workingDir().createTempFile(".avro").toFile();
+        try (var input = runContext.storage().getFile(output.getUri())) {
+            Files.copy(input, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (var reader = new DataFileReader<GenericRecord>(file, new GenericDatumReader<>())) {
+            var record = reader.next();
+            assertThat(record.get("number") == null, is(true));
+            assertThat(record.get("impact"), is(3L));
+        }
+    }
+
+    @Test
+    void runWithPagination(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_offset", equalTo("0"))
+            .willReturn(okJson(DATA).withHeader(
+                "Link",
+                "<" + wireMockRuntimeInfo.getHttpBaseUrl() + path + "?sysparm_limit=1&sysparm_offset=1>;rel=\"next\""
+            )));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_offset", equalTo("1")).willReturn(okJson(DATA)));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_offset", equalTo("2")).willReturn(okJson("{\"result\":[]}")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .paginate(Property.ofValue(true))
+            .pageSize(Property.ofValue(1))
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getUri() != null, is(true));
+        assertThat(output.getSize(), is(2));
+        assertThat(output.getPages(), is(3));
+        verify(3, getRequestedFor(urlPathEqualTo(path)).withQueryParam("sysparm_limit", equalTo("1")));
+    }
+
+    @Test
+    void runWithConcurrency(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_offset", equalTo("0"))
+            .willReturn(okJson(DATA).withHeader("X-Total-Count", "4")));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_offset", matching("[123]")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .query(Property.ofValue("active=true"))
+            .paginate(Property.ofValue(true))
+            .pageSize(Property.ofValue(1))
+            .concurrency(Property.ofValue(2))
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getSize(), is(4));
+        assertThat(output.getPages(), is(4));
+        verify(4, getRequestedFor(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("active=true")));
+    }
+
+    @Test
+    void runWithKeyset(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("active=true^ORDERBYsys_id"))
+            .willReturn(okJson(DATA)));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("active=true^sys_id>04ce72c9c0a8016600b5b7f75ac67b5b^ORDERBYsys_id"))
+            .willReturn(okJson("{\"result\":[]}")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .query(Property.ofValue("active=true"))
+            .fields(Property.ofValue(List.of("number")))
+            .paginate(Property.ofValue(true))
+            .pageSize(Property.ofValue(1))
+            .paginationMode(Property.ofValue(Get.PaginationMode.KEYSET))
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getSize(), is(1));
+        assertThat(output.getPages(), is(2));
+        verify(2, getRequestedFor(urlPathEqualTo(path)).withQueryParam("sysparm_fields", equalTo("number,sys_id")));
+        verify(0, getRequestedFor(urlPathEqualTo(path)).withQueryParam("sysparm_offset", matching(".*")));
+    }
+
+    @Test
+    void shouldShareTokenAcrossRuns(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(any(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do"))
+            .willReturn(okJson("{\"access_token\":\"token\",\"refresh_token\":\"refresh\",\"expires_in\":1800}")));
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("token-cache-user"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        task.run(runContextFactory.of(Map.of()));
+        task.run(runContextFactory.of(Map.of()));
+
+        verify(1, postRequestedFor(urlPathEqualTo("/service-now.com/oauth_token.do")));
+        verify(2, getRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withHeader("Authorization", equalTo("Bearer token")));
+    }
+
+    @Test
+    void runIncremental(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("ORDERBYsys_updated_on^ORDERBYsys_id"))
+            .willReturn(okJson(DATA)));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", matching(".*sys_updated_on>2016-01-19 04:52:04.*"))
+            .willReturn(okJson("{\"result\":[]}")));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("sys_updated_on>=2016-01-19 04:52:04^ORDERBYsys_updated_on^ORDERBYsys_id"))
+            .willReturn(okJson("{\"result\":[]}")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Get.builder()
+            .id("incremental")
+            .type(Get.class.getName())
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .fetchType(Property.ofValue(FetchType.STORE))
+            .pageSize(Property.ofValue(1))
+            .incremental(Property.ofValue(true))
+            .watermarkKey(Property.ofValue("incident_" + IdUtils.create()))
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+
+        var first = task.run(runContext);
+        assertThat(first.getSize(), is(1));
+        assertThat(first.getWatermark(), is("2016-01-19 04:52:04"));
+
+        var second = task.run(runContext);
+        assertThat(second.getSize(), is(0));
+        verify(1, getRequestedFor(urlPathEqualTo(path))
+            .withQueryParam("sysparm_query", equalTo("sys_updated_on>=2016-01-19 04:52:04^ORDERBYsys_updated_on^ORDERBYsys_id")));
+    }
+
+    @Test
+    void runWithCompression(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var gzipped = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(DATA.getBytes(StandardCharsets.UTF_8));
+        }
+
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withHeader("Content-Encoding", "gzip")
+            .withBody(gzipped.toByteArray())));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .compression(Property.ofValue(true))
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getSize(), is(1));
+        assertThat(output.getResults().getFirst().get("number"), is("PRB0000050"));
+        verify(1, getRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withHeader("Accept-Encoding", containing("gzip")));
+    }
+
+    @Test
+    void runWithRateLimit(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).inScenario("rate limit").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+            .willSetStateTo("accepted"));
+        stubFor(get(urlPathEqualTo(path)).inScenario("rate limit").whenScenarioStateIs("accepted")
+            .willReturn(okJson(DATA).withHeader("X-RateLimit-Remaining", "10")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var task = Get.builder()
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("throttled"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getSize(), is(1));
+        verify(2, getRequestedFor(urlPathEqualTo(path)));
+    }
+
+    @Test
+    void runAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator().table("incident", 2_500).throttleEvery(4)) {
+            var task = Get.builder()
+                .table(Property.ofValue("incident"))
+                .query(Property.ofValue("priority=1"))
+                .fields(Property.ofValue(List.of("number", "priority")))
+                .fetchType(Property.ofValue(FetchType.FETCH))
+                .paginate(Property.ofValue(true))
+                .pageSize(Property.ofValue(100))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = task.run(runContextFactory.of(Map.of()));
+
+            assertThat(output.getSize(), is(500));
+            assertThat(output.getResults().getFirst().keySet(), is(Set.of("number", "priority")));
+            assertThat(emulator.throttled() > 0, is(true));
+        }
+    }
+
+    @Test
+    void runLeanAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator().table("incident", 1_000)) {
+            Function<Boolean, Get> task = lean -> Get.builder()
+                .table(Property.ofValue("incident"))
+                .paginate(Property.ofValue(true))
+                .paginationMode(Property.ofValue(Get.PaginationMode.KEYSET))
+                .pageSize(Property.ofValue(300))
+                .lean(Property.ofValue(lean))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var fullOutput = task.apply(false).run(runContextFactory.of(Map.of()));
+            var leanOutput = task.apply(true).run(runContextFactory.of(Map.of()));
+
+            assertThat(fullOutput.getSize(), is(1_000));
+            assertThat(leanOutput.getSize(), is(1_000));
+            assertThat(leanOutput.getResults().getFirst().get("assignment_group") instanceof String, is(true));
+            assertThat(leanOutput.getBytes() < fullOutput.getBytes(), is(true));
+        }
+    }
+
+    @Test
+    void queryStringWithReadOptions() {
+        assertThat(
+            Get.queryString("active=true", 100, null, null, List.of(), new Get.ReadOptions(true, true, Get.DisplayValue.FALSE, true)),
+            is("sysparm_query=active%3Dtrue&sysparm_limit=100&sysparm_no_count=true&sysparm_exclude_reference_link=true" +
+                "&sysparm_display_value=false&sysparm_suppress_pagination_header=true")
+        );
+        assertThat(Get.queryString(null, 100, 0, null, List.of(), Get.ReadOptions.DEFAULT), is("sysparm_limit=100&sysparm_offset=0"));
+    }
+
+    @Test
+    void metricTable() {
+        assertThat(AbstractServiceNow.metricTable(URI.create("https://kestra.service-now.com/api/now/table/incident/abc")), is("incident"));
+        assertThat(AbstractServiceNow.metricTable(URI.create("https://kestra.service-now.com/api/now/stats/incident?sysparm_count=true")), is("incident"));
+        assertThat(AbstractServiceNow.metricTable(URI.create("https://kestra.service-now.com/api/now/v1/batch")), is("batch"));
+        assertThat(AbstractServiceNow.metricTable(URI.create("https://kestra.service-now.com/oauth_token.do")), is("oauth_token.do"));
+    }
+
+    @Test
+    void keysetQueryWithCompositeKey() {
+        var query = Get.keysetQuery("active=true", List.of("sys_updated_on", "sys_id"), List.of("2024-01-01 00:00:00", "abc"));
+
+        assertThat(query, is(
+            "active=true^sys_updated_on>2024-01-01 00:00:00" +
+                "^NQactive=true^sys_updated_on=2024-01-01 00:00:00^sys_id>abc" +
+                "^ORDERBYsys_updated_on^ORDERBYsys_id"
+        ));
+    }
+
     static final String DATA = """
         {
               "result": [
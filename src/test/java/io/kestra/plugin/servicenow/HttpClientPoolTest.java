@@ -0,0 +1,131 @@
+package io.kestra.plugin.servicenow;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.http.client.configurations.HttpConfiguration;
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+class HttpClientPoolTest {
+    private static final HttpConfiguration CONFIGURATION = HttpConfiguration.builder().build();
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void reuseWithinRun() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var key = key(runContext, 10, Duration.ofSeconds(30));
+
+        try (var first = HttpClientPool.acquire(key, CONFIGURATION); var second = HttpClientPool.acquire(key(runContext, 10, Duration.ofSeconds(30)), CONFIGURATION)) {
+            assertThat(second.client(), sameInstance(first.client()));
+        }
+    }
+
+    @Test
+    void neverSharedAcrossRunsOrSettings() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var other = runContextFactory.of(Map.of());
+
+        try (
+            var lease = HttpClientPool.acquire(key(runContext, 10, Duration.ofSeconds(30)), CONFIGURATION);
+            var otherRun = HttpClientPool.acquire(key(other, 10, Duration.ofSeconds(30)), CONFIGURATION);
+            var otherLimit = HttpClientPool.acquire(key(runContext, 2, Duration.ofSeconds(30)), CONFIGURATION);
+            var otherKeepAlive = HttpClientPool.acquire(key(runContext, 10, Duration.ofSeconds(5)), CONFIGURATION)
+        ) {
+            assertThat(otherRun.client(), not(sameInstance(lease.client())));
+            assertThat(otherLimit.client(), not(sameInstance(lease.client())));
+            assertThat(otherKeepAlive.client(), not(sameInstance(lease.client())));
+        }
+    }
+
+    @Test
+    void closeWhenRunEnds() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var key = key(runContext, 10, Duration.ofSeconds(30));
+        var other = key(runContextFactory.of(Map.of()), 10, Duration.ofSeconds(30));
+
+        var run = HttpClientPool.scope(runContext);
+        // a child task of the same run, as in an Export
+        try (var ignored = HttpClientPool.scope(runContext)) {
+            HttpClientPool.acquire(key, CONFIGURATION).close();
+        }
+        assertThat(HttpClientPool.pooled(key), is(true));
+
+        HttpClientPool.acquire(other, CONFIGURATION).close();
+        run.close();
+        assertThat(HttpClientPool.pooled(key), is(false));
+        // the clients of other runs are left alone
+        assertThat(HttpClientPool.pooled(other), is(true));
+    }
+
+    @Test
+    void closeAfterLastLease() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var key = key(runContext, 10, Duration.ofSeconds(30));
+
+        var scope = HttpClientPool.scope(runContext);
+        var lease = HttpClientPool.acquire(key, CONFIGURATION);
+        scope.close();
+
+        // no longer handed out, but still usable by the request in flight
+        assertThat(HttpClientPool.pooled(key), is(false));
+        try (var next = HttpClientPool.acquire(key, CONFIGURATION)) {
+            assertThat(next.client(), not(sameInstance(lease.client())));
+        }
+        lease.close();
+    }
+
+    @Test
+    void evictIdle() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var key = key(runContext, 10, Duration.ofMillis(1));
+
+        HttpClientPool.acquire(key, CONFIGURATION).close();
+        assertThat(HttpClientPool.pooled(key), is(true));
+
+        Thread.sleep(20);
+        // within a run, idle clients are evicted on the next acquisition, whatever its key
+        HttpClientPool.acquire(key(runContextFactory.of(Map.of()), 10, Duration.ofSeconds(30)), CONFIGURATION).close();
+        assertThat(HttpClientPool.pooled(key), is(false));
+    }
+
+    @Test
+    void leaseLimit() throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+        var key = key(runContext, 1, Duration.ofSeconds(30));
+
+        var first = HttpClientPool.acquire(key, CONFIGURATION);
+        var second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return HttpClientPool.acquire(key, CONFIGURATION);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Thread.sleep(200);
+        assertThat(second.isDone(), is(false));
+
+        first.close();
+        second.get(5, TimeUnit.SECONDS).close();
+    }
+
+    private static HttpClientPool.Key key(RunContext runContext, int maxConnections, Duration keepAlive) {
+        return new HttpClientPool.Key(runContext, "http://localhost/", "scope", maxConnections, keepAlive);
+    }
+}
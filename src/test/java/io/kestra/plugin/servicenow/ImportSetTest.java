@@ -0,0 +1,154 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+@WireMockTest(httpPort = 8084)
+class ImportSetTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/import/u_user_import/insertMultiple")).willReturn(okJson("""
+            {
+              "import_set_id": "ISET0010001",
+              "staging_table": "u_user_import",
+              "result": [
+                {"transform_map": "User", "table": "sys_user", "status": "inserted", "sys_id": "a1"},
+                {"transform_map": "User", "table": "sys_user", "status": "updated", "sys_id": "a2"}
+              ]
+            }
+            """)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file))) {
+            FileSerde.writeAll(output, Flux.just(
+                Map.of("u_user_name", "first"),
+                Map.of("u_user_name", "second"),
+                Map.of("u_user_name", "third"),
+                Map.of("u_user_name", "fourth")
+            )).block();
+        }
+
+        var task = ImportSet.builder()
+            .stagingTable(Property.ofValue("u_user_import"))
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .chunkSize(Property.ofValue(2))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getRows(), is(4L));
+        assertThat(output.getStatuses().get("inserted"), is(2L));
+        assertThat(output.getStatuses().get("updated"), is(2L));
+        verify(2, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/import/u_user_import/insertMultiple"))
+            .withRequestBody(matchingJsonPath("$.records.length()", equalTo("2"))));
+    }
+
+    @Test
+    void failedChunk(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/import/u_failed_import/insertMultiple")).willReturn(okJson("""
+            {
+              "import_set_id": "ISET0010002",
+              "result": [
+                {"table": "sys_user", "status": "inserted", "sys_id": "a1"},
+                {"table": "sys_user", "status": "inserted", "sys_id": "a2"}
+              ]
+            }
+            """)));
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/import/u_failed_import/insertMultiple"))
+            .withRequestBody(containing("third"))
+            .atPriority(1)
+            .willReturn(aResponse().withStatus(400).withBody("{\"error\":{\"message\":\"Invalid records\"}}")));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var runContext = runContextFactory.of(Map.of());
+
+        var output = task(runContext, wireMockRuntimeInfo, "u_failed_import", 2).run(runContext);
+
+        // the rejected chunk does not stop the others
+        assertThat(output.getRows(), is(2L));
+        assertThat(output.getFailed(), is(2L));
+        assertThat(output.getStatuses().get("inserted"), is(2L));
+
+        List<Object> rows;
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+            rows = FileSerde.readAll(reader).collectList().block();
+        }
+        assertThat(rows.size(), is(4));
+        assertThat(((Map<?, ?>) rows.get(0)).get("status"), is("inserted"));
+        assertThat(((Map<?, ?>) rows.get(2)).containsKey("error"), is(true));
+        assertThat(((Number) ((Map<?, ?>) rows.get(3)).get("index")).longValue(), is(3L));
+    }
+
+    @Test
+    void invalidChunkSize(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var runContext = runContextFactory.of(Map.of());
+
+        assertThrows(IllegalArgumentException.class, () -> task(runContext, wireMockRuntimeInfo, "u_user_import", 0).run(runContext));
+        assertThrows(IllegalArgumentException.class, () -> task(runContext, wireMockRuntimeInfo, "u_user_import", ImportSet.MAX_CHUNK_SIZE + 1).run(runContext));
+        verify(0, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/import/u_user_import/insertMultiple")));
+    }
+
+    private static ImportSet task(RunContext runContext, WireMockRuntimeInfo wireMockRuntimeInfo, String stagingTable, int chunkSize) throws Exception {
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file))) {
+            FileSerde.writeAll(output, Flux.just(
+                Map.of("u_user_name", "first"),
+                Map.of("u_user_name", "second"),
+                Map.of("u_user_name", "third"),
+                Map.of("u_user_name", "fourth")
+            )).block();
+        }
+        URI from = runContext.storage().putFile(file);
+
+        return ImportSet.builder()
+            .stagingTable(Property.ofValue(stagingTable))
+            .from(Property.ofValue(from.toString()))
+            .chunkSize(Property.ofValue(chunkSize))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+    }
+}
@@ -0,0 +1,190 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.common.FetchType;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Throughput and peak heap of the tasks against {@link TableApiEmulator}, run with {@code ./gradlew loadTest}.
+ * <p>
+ * Sizes default to what runs in about a minute and can be raised, for example to a million rows, with
+ * {@code -Dservicenow.load.rows=1000000 -Dservicenow.load.writes=100000}.
+ */
+@KestraTest
+@Tag("load")
+class LoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTest.class);
+    private static final long ROWS = Long.getLong("servicenow.load.rows", 200_000);
+    private static final long WRITES = Long.getLong("servicenow.load.writes", 20_000);
+    private static final Duration LATENCY = Duration.ofMillis(Long.getLong("servicenow.load.latencyMs", 5));
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void getOffsetConcurrent() throws Exception {
+        try (var emulator = new TableApiEmulator().table("incident", ROWS).latency(LATENCY)) {
+            var task = Get.builder()
+                .table(Property.ofValue("incident"))
+                .fetchType(Property.ofValue(FetchType.STORE))
+                .paginate(Property.ofValue(true))
+                .pageSize(Property.ofValue(1000))
+                .concurrency(Property.ofValue(4))
+                .username(Property.ofValue("load"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = measure("Get OFFSET x4", ROWS, () -> task.run(runContextFactory.of(Map.of())));
+
+            assertThat(output.getSize().longValue(), is(ROWS));
+        }
+    }
+
+    @Test
+    void getKeyset() throws Exception {
+        var rows = ROWS / 10;
+        try (var emulator = new TableApiEmulator().table("incident", rows).latency(LATENCY)) {
+            var task = Get.builder()
+                .table(Property.ofValue("incident"))
+                .fetchType(Property.ofValue(FetchType.STORE))
+                .paginate(Property.ofValue(true))
+                .paginationMode(Property.ofValue(Get.PaginationMode.KEYSET))
+                .pageSize(Property.ofValue(1000))
+                .username(Property.ofValue("load"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = measure("Get KEYSET", rows, () -> task.run(runContextFactory.of(Map.of())));
+
+            assertThat(output.getSize().longValue(), is(rows));
+        }
+    }
+
+    @Test
+    void getThrottled() throws Exception {
+        var rows = ROWS / 10;
+        try (var emulator = new TableApiEmulator().table("incident", rows).latency(LATENCY).throttleEvery(10)) {
+            var task = Get.builder()
+                .table(Property.ofValue("incident"))
+                .fetchType(Property.ofValue(FetchType.STORE))
+                .paginate(Property.ofValue(true))
+                .pageSize(Property.ofValue(500))
+                .concurrency(Property.ofValue(4))
+                .username(Property.ofValue("throttled"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = measure("Get throttled", rows, () -> task.run(runContextFactory.of(Map.of())));
+
+            assertThat(output.getSize().longValue(), is(rows));
+            assertThat(emulator.throttled(), greaterThan(0L));
+        }
+    }
+
+    @Test
+    void postBulk() throws Exception {
+        try (var emulator = new TableApiEmulator().latency(LATENCY)) {
+            var runContext = runContextFactory.of(Map.of());
+            var task = Post.builder()
+                .table(Property.ofValue("incident"))
+                .from(Property.ofValue(records(runContext, WRITES).toString()))
+                .concurrency(Property.ofValue(16))
+                .maxConnections(Property.ofValue(16))
+                .username(Property.ofValue("load"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = measure("Post bulk x16", WRITES, () -> task.run(runContext));
+
+            assertThat(output.getCreated(), is(WRITES));
+            assertThat(emulator.created("incident"), is(WRITES));
+        }
+    }
+
+    @Test
+    void importSet() throws Exception {
+        try (var emulator = new TableApiEmulator().latency(LATENCY)) {
+            var runContext = runContextFactory.of(Map.of());
+            var task = ImportSet.builder()
+                .stagingTable(Property.ofValue("u_incident_import"))
+                .from(Property.ofValue(records(runContext, WRITES).toString()))
+                .chunkSize(Property.ofValue(500))
+                .concurrency(Property.ofValue(4))
+                .username(Property.ofValue("load"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            var output = measure("ImportSet x4", WRITES, () -> task.run(runContext));
+
+            assertThat(output.getRows(), is(WRITES));
+            assertThat(emulator.created("u_incident_import"), is(WRITES));
+        }
+    }
+
+    private static URI records(RunContext runContext, long count) throws Exception {
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file), FileSerde.BUFFER_SIZE)) {
+            FileSerde.writeAll(output, Flux.fromStream(LongStream.range(0, count).mapToObj(TableApiEmulator::generate))).block();
+        }
+        return runContext.storage().putFile(file);
+    }
+
+    /**
+     * Runs the task once and logs its throughput and the peak heap used meanwhile. The peak is not preceded by a
+     * collection, so it also counts the garbage left by earlier tests: an upper bound of what the task needed.
+     */
+    private static <T> T measure(String name, long records, Callable<T> task) throws Exception {
+        var pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        var start = System.nanoTime();
+        var result = task.call();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        var peak = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        LOG.info(
+            "{}: {} records in {} ms, {} records/s, peak heap {} MiB",
+            name, records, elapsed.toMillis(), Math.round(records * 1e9 / elapsed.toNanos()), peak / (1024 * 1024)
+        );
+
+        return result;
+    }
+}
@@ -1,9 +1,16 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 
@@ -11,6 +18,8 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import reactor.core.publisher.Flux;
 
 import jakarta.inject.Inject;
 
@@ -55,6 +64,142 @@ class PostTests {
         assertThat(output.getResult().get("number"), is("INC0010002"));
     }
 
+    @Test
+    void runFromFile(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file))) {
+            FileSerde.writeAll(output, Flux.just(
+                Map.of("short_description", "first"),
+                Map.of("short_description", "second"),
+                Map.of("short_description", "third")
+            )).block();
+        }
+
+        Post task = Post.builder()
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .table(Property.ofValue("incident"))
+            .concurrency(Property.ofValue(2))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wmRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getCreated(), is(3L));
+        assertThat(output.getFailed(), is(0L));
+        assertThat(output.getUri() != null, is(true));
+        verify(3, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withQueryParam("sysparm_fields", equalTo("sys_id")));
+    }
+
+    @Test
+    void runFromFileWithRowFailures(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withRequestBody(containing("reset"))
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        RunContext runContext = runContextFactory.of(Map.of());
+
+        var file = runContext.workingDir().createTempFile(".ion").toFile();
+        try (var output = new BufferedWriter(new FileWriter(file))) {
+            FileSerde.writeAll(output, Flux.just(
+                Map.of("short_description", "first"),
+                "not a record",
+                Map.of("short_description", "reset")
+            )).block();
+        }
+
+        Post task = Post.builder()
+            .from(Property.ofValue(runContext.storage().putFile(file).toString()))
+            .table(Property.ofValue("incident"))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wmRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getCreated(), is(1L));
+        assertThat(output.getFailed(), is(2L));
+
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+            var failures = FileSerde.readAll(reader)
+                .map(row -> (Map<?, ?>) row)
+                .filter(row -> row.containsKey("error"))
+                .map(row -> ((Number) row.get("index")).longValue())
+                .collectList()
+                .block();
+            assertThat(failures.stream().sorted().toList(), is(List.of(1L, 2L)));
+        }
+    }
+
+    @Test
+    void runWithRequestCompression(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        Post task = Post.builder()
+            .data(Property.ofValue(Map.of("description", "x".repeat(4096))))
+            .table(Property.ofValue("incident"))
+            .requestCompression(Property.ofValue(true))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wmRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getResult().get("number"), is("INC0010002"));
+        verify(1, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withHeader("Content-Encoding", equalTo("gzip")));
+    }
+
+    @Test
+    void retryWithCorrelationField(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+        stubFor(post(urlPathEqualTo("/service-now.com/api/now/table/incident")).willReturn(aResponse().withStatus(504)));
+        stubFor(get(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withQueryParam("sysparm_query", matching("correlation_id=.+"))
+            .willReturn(okJson(DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        Post task = Post.builder()
+            .data(Property.ofValue(Map.of("short_description", "Unable to connect to office wifi")))
+            .table(Property.ofValue("incident"))
+            .correlationField(Property.ofValue("correlation_id"))
+            .retryDelay(Property.ofValue(Duration.ofMillis(10)))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wmRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        // the lookup found the record created by the failed attempt, so it is not posted again
+        assertThat(output.getResult().get("number"), is("INC0010002"));
+        verify(1, postRequestedFor(urlPathEqualTo("/service-now.com/api/now/table/incident"))
+            .withRequestBody(matchingJsonPath("$.correlation_id")));
+    }
+
     static final String DATA = """
         {
           "result": {
@@ -0,0 +1,89 @@
+package io.kestra.plugin.servicenow;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.utils.IdUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+
+class RateLimiterTest {
+
+    @Test
+    void recoverGradually() {
+        var limiter = RateLimiter.of(key());
+        var now = Instant.now();
+
+        // a first 429 with no traffic drops the rate to its minimum
+        limiter.throttled(null, now);
+        assertThat(limiter.rate(), closeTo(0.1, 1e-9));
+
+        // many successes at once must not undo the backoff
+        for (int i = 0; i < 100; i++) {
+            limiter.succeeded(null, now);
+        }
+        assertThat(limiter.rate(), closeTo(0.1, 1e-9));
+
+        limiter.succeeded(null, now.plusMillis(500));
+        assertThat(limiter.rate(), closeTo(0.6, 1e-9));
+
+        // a long pause between successes still grows by one step at most
+        limiter.succeeded(null, now.plus(Duration.ofMinutes(1)));
+        assertThat(limiter.rate(), closeTo(1.6, 1e-9));
+    }
+
+    @Test
+    void taskLimitIsNotShared() {
+        var key = key();
+        var cap = RateLimiter.fixed(1);
+        var shared = RateLimiter.of(key);
+        var now = Instant.now();
+
+        assertThat(cap.tryAcquire(now), is(Duration.ZERO));
+        assertThat(cap.tryAcquire(now).isZero(), is(false));
+
+        // another task on the same instance and user, without a rateLimit, is not slowed down by it
+        assertThat(RateLimiter.of(key), sameInstance(shared));
+        for (int i = 0; i < 100; i++) {
+            assertThat(shared.tryAcquire(now), is(Duration.ZERO));
+        }
+    }
+
+    @Test
+    void spreadRemainingQuota() {
+        var limiter = RateLimiter.of(key());
+        var now = Instant.now();
+        var reset = String.valueOf(now.plusSeconds(100).getEpochSecond());
+
+        // plenty of quota left: not paced
+        limiter.succeeded(headers(Map.of("X-RateLimit-Limit", "1000", "X-RateLimit-Remaining", "500", "X-RateLimit-Reset", reset)), now);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(now), is(Duration.ZERO));
+        }
+
+        // the last 10% of the quota is spread until the reset, about one request per two seconds here
+        limiter.succeeded(headers(Map.of("X-RateLimit-Limit", "1000", "X-RateLimit-Remaining", "50", "X-RateLimit-Reset", reset)), now);
+        assertThat(limiter.tryAcquire(now), is(Duration.ZERO));
+        assertThat(limiter.tryAcquire(now).toMillis(), greaterThan(1000L));
+    }
+
+    private static HttpHeaders headers(Map<String, String> values) {
+        var map = new HashMap<String, List<String>>();
+        values.forEach((name, value) -> map.put(name, List.of(value)));
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    private static RateLimiter.Key key() {
+        return new RateLimiter.Key("http://localhost/", IdUtils.create());
+    }
+}
@@ -0,0 +1,447 @@
+package io.kestra.plugin.servicenow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.kestra.core.utils.IdUtils;
+
+/**
+ * Offline emulator of the ServiceNow Table and Import Set APIs, to exercise tasks against large tables with real
+ * pagination headers, throttling and latency.
+ * <p>
+ * Tables are synthetic: row {@code i} is generated on demand, so that a table of millions of rows costs no memory, with
+ * {@code sys_updated_on} and {@code sys_id} both increasing with {@code i}. Records created, updated or deleted through
+ * the API are kept in memory on top of the generated ones.
+ * <p>
+ * Encoded queries support {@code =}, {@code !=}, {@code >}, {@code >=}, {@code <}, {@code <=}, {@code ^} (and),
+ * {@code ^NQ} (or) and {@code ORDERBY}/{@code ORDERBYDESC}, comparing values as strings.
+ */
+class TableApiEmulator implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int DEFAULT_LIMIT = 10000;
+
+    private final HttpServer server;
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Object>>> updated = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> deleted = new ConcurrentHashMap<>();
+    private final Map<String, Collection<Map<String, Object>>> created = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int throttleEvery = 0;
+
+    TableApiEmulator() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * Adds a synthetic table of {@code rows} generated records.
+     */
+    TableApiEmulator table(String name, long rows) {
+        sizes.put(name, rows);
+        return this;
+    }
+
+    /**
+     * Delays every response.
+     */
+    TableApiEmulator latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Answers one request out of {@code every} with {@code 429 Too Many Requests}, 0 to never throttle.
+     */
+    TableApiEmulator throttleEvery(int every) {
+        this.throttleEvery = every;
+        return this;
+    }
+
+    String baseUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long throttled() {
+        return throttled.get();
+    }
+
+    long created(String table) {
+        return created.getOrDefault(table, Set.of()).size();
+    }
+
+    long updated(String table) {
+        return updated.getOrDefault(table, Map.of()).size();
+    }
+
+    long deleted(String table) {
+        return deleted.getOrDefault(table, Set.of()).size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    static Map<String, Object> generate(long i) {
+        var record = new LinkedHashMap<String, Object>();
+        record.put("sys_id", "%032x".formatted(i));
+        record.put("number", "INC%07d".formatted(i));
+        record.put("sys_updated_on", EPOCH.plusSeconds(i).format(DATE_TIME));
+        record.put("sys_created_on", EPOCH.plusSeconds(i).format(DATE_TIME));
+        record.put("sys_created_by", "admin");
+        record.put("sys_updated_by", "admin");
+        record.put("sys_mod_count", "0");
+        record.put("sys_class_name", "incident");
+        record.put("active", i % 3 == 0 ? "false" : "true");
+        record.put("priority", String.valueOf(1 + i % 5));
+        record.put("impact", String.valueOf(1 + i % 3));
+        record.put("urgency", String.valueOf(1 + i % 3));
+        record.put("state", String.valueOf(1 + i % 7));
+        record.put("category", i % 2 == 0 ? "network" : "software");
+        record.put("short_description", "Synthetic incident " + i);
+        record.put("description", "Generated by the Table API emulator for load tests, row " + i);
+        record.put("assignment_group", Map.of(
+            "link", "https://instance.service-now.com/api/now/table/sys_user_group/" + "%032x".formatted(i % 20),
+            "value", "%032x".formatted(i % 20)
+        ));
+        record.put("opened_at", EPOCH.plusSeconds(i).format(DATE_TIME));
+        record.put("reassignment_count", String.valueOf(i % 4));
+        record.put("contact_type", "phone");
+        return record;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            var path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/oauth_token.do")) {
+                json(exchange, 200, Map.of("access_token", "token", "expires_in", 1800));
+                return;
+            }
+
+            var every = throttleEvery;
+            if (every > 0 && requests.get() % every == 0) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                json(exchange, 429, Map.of("error", Map.of("message", "Rate limit exceeded")));
+                return;
+            }
+
+            var segments = path.substring(path.indexOf("/api/now/") + "/api/now/".length()).split("/");
+            switch (segments[0]) {
+                case "table" -> this.table(exchange, segments[1], segments.length > 2 ? segments[2] : null);
+                case "import" -> this.insertMultiple(exchange, segments[1]);
+                default -> json(exchange, 404, Map.of("error", Map.of("message", "Unsupported API " + path)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void table(HttpExchange exchange, String table, String sysId) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> this.list(exchange, table);
+            case "POST" -> {
+                var record = new LinkedHashMap<String, Object>(body(exchange));
+                record.put("sys_id", IdUtils.create());
+                record.put("sys_updated_on", LocalDateTime.now().format(DATE_TIME));
+                created.computeIfAbsent(table, k -> new ConcurrentLinkedQueue<>()).add(record);
+                json(exchange, 201, Map.of("result", fields(record, parameters(exchange.getRequestURI()).get("sysparm_fields"))));
+            }
+            case "PUT", "PATCH" -> {
+                var changes = body(exchange);
+                updated.computeIfAbsent(table, k -> new ConcurrentHashMap<>()).merge(sysId, changes, (previous, next) -> {
+                    var merged = new HashMap<>(previous);
+                    merged.putAll(next);
+                    return merged;
+                });
+                json(exchange, 200, Map.of("result", Map.of("sys_id", sysId)));
+            }
+            case "DELETE" -> {
+                deleted.computeIfAbsent(table, k -> ConcurrentHashMap.newKeySet()).add(sysId);
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> json(exchange, 405, Map.of("error", Map.of("message", "Unsupported method")));
+        }
+    }
+
+    private void list(HttpExchange exchange, String table) throws IOException {
+        var parameters = parameters(exchange.getRequestURI());
+        var limit = Integer.parseInt(parameters.getOrDefault("sysparm_limit", String.valueOf(DEFAULT_LIMIT)));
+        var offset = Long.parseLong(parameters.getOrDefault("sysparm_offset", "0"));
+        var query = Query.parse(parameters.get("sysparm_query"));
+        var size = sizes.getOrDefault(table, 0L);
+
+        List<Map<String, Object>> page;
+        long total;
+        if (query.isEmpty() && !updated.containsKey(table) && !deleted.containsKey(table) && !created.containsKey(table)) {
+            // unfiltered reads of generated rows are served by index, whatever the size of the table
+            total = size;
+            page = new ArrayList<>();
+            for (var i = offset; i < Math.min(size, offset + limit); i++) {
+                page.add(generate(i));
+            }
+        } else {
+            var matching = query.apply(this.rows(table)).toList();
+            total = matching.size();
+            page = matching.stream().skip(offset).limit(limit).toList();
+        }
+
+        if (!"true".equals(parameters.get("sysparm_no_count"))) {
+            exchange.getResponseHeaders().add("X-Total-Count", String.valueOf(total));
+        }
+        if (!"true".equals(parameters.get("sysparm_suppress_pagination_header"))) {
+            exchange.getResponseHeaders().add("Link", this.links(exchange.getRequestURI(), parameters, offset, limit, total));
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody(); JsonGenerator generator = MAPPER.getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("result");
+            for (var record : page) {
+                var selected = fields(record, parameters.get("sysparm_fields"));
+                MAPPER.writeValue(generator, "true".equals(parameters.get("sysparm_exclude_reference_link")) ? withoutLinks(selected) : selected);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static Map<String, Object> withoutLinks(Map<String, Object> record) {
+        var values = new LinkedHashMap<String, Object>(record);
+        values.replaceAll((name, value) -> value instanceof Map<?, ?> reference ? reference.get("value") : value);
+        return values;
+    }
+
+    private Stream<Map<String, Object>> rows(String table) {
+        var changes = updated.getOrDefault(table, Map.of());
+        var removed = deleted.getOrDefault(table, Set.of());
+
+        return Stream.concat(
+                Stream.iterate(0L, i -> i < sizes.getOrDefault(table, 0L), i -> i + 1).map(TableApiEmulator::generate),
+                created.getOrDefault(table, Set.of()).stream()
+            )
+            .filter(record -> !removed.contains((String) record.get("sys_id")))
+            .map(record -> {
+                var change = changes.get((String) record.get("sys_id"));
+                if (change == null) {
+                    return record;
+                }
+                var merged = new LinkedHashMap<>(record);
+                merged.putAll(change);
+                return merged;
+            });
+    }
+
+    private String links(URI uri, Map<String, String> parameters, long offset, int limit, long total) {
+        var links = new ArrayList<String>();
+        links.add(link(uri, parameters, 0, limit, "first"));
+        if (offset > 0) {
+            links.add(link(uri, parameters, Math.max(0, offset - limit), limit, "prev"));
+        }
+        if (offset + limit < total) {
+            links.add(link(uri, parameters, offset + limit, limit, "next"));
+        }
+        links.add(link(uri, parameters, Math.max(0, (total - 1) / limit * limit), limit, "last"));
+        return String.join(",", links);
+    }
+
+    private String link(URI uri, Map<String, String> parameters, long offset, int limit, String rel) {
+        var query = new LinkedHashMap<>(parameters);
+        query.put("sysparm_limit", String.valueOf(limit));
+        query.put("sysparm_offset", String.valueOf(offset));
+
+        var encoded = query.entrySet().stream()
+            .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+            .reduce((a, b) -> a + "&" + b)
+            .orElse("");
+
+        return "<" + baseUri() + uri.getPath().substring(1) + "?" + encoded + ">;rel=\"" + rel + "\"";
+    }
+
+    private void insertMultiple(HttpExchange exchange, String stagingTable) throws IOException {
+        var records = MAPPER.readValue(exchange.getRequestBody(), new TypeReference<Map<String, List<Map<String, Object>>>>() {}).get("records");
+        var importSetId = "ISET" + IdUtils.create();
+
+        var results = new ArrayList<Map<String, Object>>();
+        for (var record : records) {
+            var inserted = new LinkedHashMap<String, Object>(record);
+            inserted.put("sys_id", IdUtils.create());
+            created.computeIfAbsent(stagingTable, k -> new ConcurrentLinkedQueue<>()).add(inserted);
+            results.add(Map.of("transform_map", "Emulated", "table", stagingTable, "status", "inserted", "sys_id", inserted.get("sys_id")));
+        }
+
+        json(exchange, 201, Map.of("import_set_id", importSetId, "staging_table", stagingTable, "result", results));
+    }
+
+    private static Map<String, Object> body(HttpExchange exchange) throws IOException {
+        return MAPPER.readValue(exchange.getRequestBody(), new TypeReference<>() {});
+    }
+
+    private static Map<String, Object> fields(Map<String, Object> record, String fields) {
+        if (fields == null || fields.isEmpty()) {
+            return record;
+        }
+
+        var selected = new LinkedHashMap<String, Object>();
+        for (var field : fields.split(",")) {
+            if (record.containsKey(field)) {
+                selected.put(field, record.get(field));
+            }
+        }
+        return selected;
+    }
+
+    private static void json(HttpExchange exchange, int status, Object body) throws IOException {
+        var bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parameters(URI uri) {
+        var parameters = new LinkedHashMap<String, String>();
+        if (uri.getRawQuery() == null) {
+            return parameters;
+        }
+
+        for (var pair : uri.getRawQuery().split("&")) {
+            var index = pair.indexOf('=');
+            if (index > 0) {
+                parameters.put(
+                    URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+        return parameters;
+    }
+
+    private record Query(List<Predicate<Map<String, Object>>> or, Comparator<Map<String, Object>> order) {
+        static Query parse(String encoded) {
+            if (encoded == null || encoded.isEmpty()) {
+                return new Query(List.of(), null);
+            }
+
+            var or = new ArrayList<Predicate<Map<String, Object>>>();
+            Comparator<Map<String, Object>> order = null;
+
+            for (var group : encoded.split("\\^NQ")) {
+                Predicate<Map<String, Object>> and = record -> true;
+                for (var condition : group.split("\\^")) {
+                    if (condition.startsWith("ORDERBYDESC")) {
+                        order = then(order, Comparator.comparing((Map<String, Object> record) -> value(record, condition.substring(11))).reversed());
+                    } else if (condition.startsWith("ORDERBY")) {
+                        order = then(order, Comparator.comparing(record -> value(record, condition.substring(7))));
+                    } else if (!condition.isEmpty()) {
+                        and = and.and(condition(condition));
+                    }
+                }
+                or.add(and);
+            }
+
+            return new Query(or, order);
+        }
+
+        boolean isEmpty() {
+            return or.isEmpty() && order == null;
+        }
+
+        Stream<Map<String, Object>> apply(Stream<Map<String, Object>> rows) {
+            var filtered = or.isEmpty() ? rows : rows.filter(record -> or.stream().anyMatch(predicate -> predicate.test(record)));
+            return order != null ? filtered.sorted(order) : filtered;
+        }
+
+        private static Comparator<Map<String, Object>> then(Comparator<Map<String, Object>> first, Comparator<Map<String, Object>> next) {
+            return first == null ? next : first.thenComparing(next);
+        }
+
+        private static Predicate<Map<String, Object>> condition(String condition) {
+            // the first operator in the condition separates the field from the value, which may contain operators too
+            String operator = null;
+            var index = -1;
+            for (var candidate : List.of("!=", ">=", "<=", ">", "<", "=")) {
+                var found = condition.indexOf(candidate);
+                if (found > 0 && (index < 0 || found < index)) {
+                    operator = candidate;
+                    index = found;
+                }
+            }
+
+            if (operator == null) {
+                throw new IllegalArgumentException("Unsupported condition " + condition);
+            }
+
+            var field = condition.substring(0, index);
+            var expected = condition.substring(index + operator.length());
+            var rOperator = operator;
+            return record -> {
+                var compared = value(record, field).compareTo(expected);
+                return switch (rOperator) {
+                    case "!=" -> compared != 0;
+                    case ">=" -> compared >= 0;
+                    case "<=" -> compared <= 0;
+                    case ">" -> compared > 0;
+                    case "<" -> compared < 0;
+                    default -> compared == 0;
+                };
+            };
+        }
+
+        private static String value(Map<String, Object> record, String field) {
+            var value = record.get(field);
+            if (value instanceof Map<?, ?> reference) {
+                value = reference.get("value");
+            }
+            return value != null ? value.toString() : "";
+        }
+    }
+}
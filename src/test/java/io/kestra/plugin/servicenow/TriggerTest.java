@@ -0,0 +1,67 @@
+package io.kestra.plugin.servicenow;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+@WireMockTest(httpPort = 8085)
+class TriggerTest {
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void evaluate(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        var path = "/service-now.com/api/now/table/incident";
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("priority=1^ORDERBYsys_updated_on^ORDERBYsys_id"))
+            .willReturn(okJson(GetTest.DATA)));
+        stubFor(get(urlPathEqualTo(path)).withQueryParam("sysparm_query", equalTo("priority=1^sys_updated_on>=2016-01-19 04:52:04^ORDERBYsys_updated_on^ORDERBYsys_id"))
+            .willReturn(okJson(GetTest.DATA)));
+        stubFor(any(urlPathEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        var trigger = Trigger.builder()
+            .id("incidents")
+            .type(Trigger.class.getName())
+            .table(Property.ofValue("incident"))
+            .query(Property.ofValue("priority=1"))
+            .fields(Property.ofValue(List.of("number")))
+            .watermarkKey(Property.ofValue("incident_" + IdUtils.create()))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        var execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(true));
+        assertThat(execution.get().getTrigger().getVariables().get("size"), is(1));
+
+        // the only record at the watermark was already emitted
+        execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(false));
+
+        verify(2, getRequestedFor(urlPathEqualTo(path))
+            .withQueryParam("sysparm_no_count", equalTo("true"))
+            .withQueryParam("sysparm_fields", equalTo("number,sys_updated_on,sys_id")));
+    }
+}
@@ -1,6 +1,10 @@
 package io.kestra.plugin.servicenow;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.Test;
 
@@ -11,10 +15,12 @@ import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
 
 import jakarta.inject.Inject;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 
@@ -54,4 +60,106 @@ public class UpdateTest {
 
         assertThat(output.getResult().get("short_description"), is("Updated description"));
     }
+
+    @Test
+    void retryOnServiceUnavailable(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        final String path = "/service-now.com/api/now/table/incident/04ce72c9c0a8016600b5b7f75ac67b5b";
+
+        stubFor(put(urlEqualTo(path)).inScenario("retry").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("available"));
+        stubFor(put(urlEqualTo(path)).inScenario("retry").whenScenarioStateIs("available")
+            .willReturn(okJson("{ \"result\": { \"short_description\": \"Updated description\" } }")));
+        stubFor(post(urlEqualTo("/service-now.com/oauth_token.do")).willReturn(okJson("{\"access_token\":\"token\"}")));
+
+        Update task = Update.builder()
+            .table(Property.ofValue("incident"))
+            .sysId(Property.ofValue("04ce72c9c0a8016600b5b7f75ac67b5b"))
+            .data(Property.ofValue(Map.of("short_description", "Updated description")))
+            .retryDelay(Property.ofValue(Duration.ofMillis(10)))
+            .clientId(Property.ofValue("clientId"))
+            .clientSecret(Property.ofValue("clientSecret"))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContextFactory.of(Map.of()));
+
+        assertThat(output.getResult().get("short_description"), is("Updated description"));
+        verify(2, putRequestedFor(urlEqualTo(path)));
+    }
+
+    @Test
+    void bulkAgainstEmulator() throws Exception {
+        try (var emulator = new TableApiEmulator().table("incident", 300)) {
+            Function<Boolean, Update> task = dryRun -> Update.builder()
+                .table(Property.ofValue("incident"))
+                .query(Property.ofValue("priority=1"))
+                .data(Property.ofValue(Map.of("state", "7")))
+                .pageSize(Property.ofValue(25))
+                .concurrency(Property.ofValue(8))
+                .dryRun(Property.ofValue(dryRun))
+                .username(Property.ofValue("emulated"))
+                .password(Property.ofValue("password"))
+                .domain(Property.ofValue("kestra"))
+                .uri(emulator.baseUri())
+                .build();
+
+            // rows 20, 55, ... already have state 7
+            var dryRun = task.apply(true).run(runContextFactory.of(Map.of()));
+            assertThat(dryRun.getMatched(), is(60L));
+            assertThat(dryRun.getSkipped(), is(8L));
+            assertThat(dryRun.getUpdated(), is(0L));
+            assertThat(emulator.updated("incident"), is(0L));
+
+            var output = task.apply(false).run(runContextFactory.of(Map.of()));
+            assertThat(output.getMatched(), is(60L));
+            assertThat(output.getUpdated(), is(52L));
+            assertThat(output.getFailed(), is(0L));
+            assertThat(emulator.updated("incident"), is(52L));
+
+            var again = task.apply(false).run(runContextFactory.of(Map.of()));
+            assertThat(again.getSkipped(), is(60L));
+            assertThat(again.getUpdated(), is(0L));
+        }
+    }
+
+    @Test
+    void bulkWithFailures(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        final String path = "/service-now.com/api/now/table/incident";
+
+        stubFor(get(urlPathEqualTo(path)).willReturn(okJson("""
+            {"result": [
+              {"sys_id": "0000000000000000000000000000000a", "state": "1"},
+              {"sys_id": "0000000000000000000000000000000b", "state": "1"}
+            ]}
+            """)));
+        stubFor(patch(urlPathEqualTo(path + "/0000000000000000000000000000000a")).willReturn(okJson("{\"result\":{\"sys_id\":\"0000000000000000000000000000000a\"}}")));
+        stubFor(patch(urlPathEqualTo(path + "/0000000000000000000000000000000b")).willReturn(aResponse().withStatus(403)));
+
+        var runContext = runContextFactory.of(Map.of());
+        Update task = Update.builder()
+            .table(Property.ofValue("incident"))
+            .query(Property.ofValue("active=true"))
+            .data(Property.ofValue(Map.of("state", "7")))
+            .username(Property.ofValue("username"))
+            .password(Property.ofValue("password"))
+            .domain(Property.ofValue("kestra"))
+            .uri(wireMockRuntimeInfo.getHttpBaseUrl() + "/service-now.com/")
+            .build();
+
+        var output = task.run(runContext);
+
+        assertThat(output.getMatched(), is(2L));
+        assertThat(output.getUpdated(), is(1L));
+        assertThat(output.getFailed(), is(1L));
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri())))) {
+            var failures = FileSerde.readAll(reader).collectList().block();
+            assertThat(failures.size(), is(1));
+            assertThat(((Map<?, ?>) failures.getFirst()).get("sysId"), is("0000000000000000000000000000000b"));
+        }
+        verify(1, getRequestedFor(urlPathEqualTo(path)).withQueryParam("sysparm_fields", equalTo("state,sys_id")));
+    }
 }
@@ -0,0 +1,80 @@
+package io.kestra.plugin.servicenow;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+@KestraTest
+class WatermarkTest {
+    private static final String SECOND = "2024-03-01 10:00:00";
+
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void skipIdsReadAtTheWatermarkSecond() throws Exception {
+        var runContext = runContext();
+        var key = "watermark_" + IdUtils.create();
+
+        var first = Watermark.load(runContext, key);
+        first.observe(record("2024-03-01 09:59:59", "a"));
+        first.observe(record(SECOND, "b"));
+        first.observe(record(SECOND, "c"));
+        first.commit();
+
+        var next = Watermark.load(runContext, key);
+        assertThat(next.apply("active=true"), is("active=true^sys_updated_on>=" + SECOND));
+        assertThat(next.start(), nullValue());
+        assertThat(next.isNew(record(SECOND, "b")), is(false));
+        assertThat(next.isNew(record(SECOND, "d")), is(true));
+    }
+
+    @Test
+    void seekPastTheLastKeyBeyondMaxIds() throws Exception {
+        var runContext = runContext();
+        var key = "watermark_" + IdUtils.create();
+
+        var first = Watermark.load(runContext, key);
+        for (int i = 0; i <= Watermark.MAX_IDS + 10; i++) {
+            first.observe(record(SECOND, "%08d".formatted(i)));
+        }
+        first.commit();
+
+        var next = Watermark.load(runContext, key);
+        var last = "%08d".formatted(Watermark.MAX_IDS + 10);
+        assertThat(next.start(), is(List.of(SECOND, last)));
+        assertThat(next.apply("active=true"), is("active=true"));
+
+        // still at the same second: the seek position moves on and the ids stay dropped
+        next.observe(record(SECOND, "x"));
+        next.commit();
+        assertThat(Watermark.load(runContext, key).start(), is(List.of(SECOND, "x")));
+    }
+
+    private RunContext runContext() {
+        var task = Get.builder()
+            .id("watermark")
+            .type(Get.class.getName())
+            .table(Property.ofValue("incident"))
+            .build();
+        return TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+    }
+
+    private static Map<String, Object> record(String updatedOn, String sysId) {
+        return Map.of("sys_updated_on", updatedOn, "sys_id", sysId);
+    }
+}